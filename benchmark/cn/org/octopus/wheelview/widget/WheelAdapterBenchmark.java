@@ -0,0 +1,136 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 适配器获取条目的基准
+ * -- 每次调用依次获取下一个条目, 与滚动时逐个显示新条目相同
+ * -- 只依赖普通 Java 的类, 可以在没有 Android 设备的 JVM 上运行:
+ *    javac -cp <src 编译结果>:jmh-core-1.37.jar:jmh-generator-annprocess-1.37.jar -d out benchmark/cn/org/octopus/wheelview/widget/*.java
+ *    java -cp out:<src 编译结果>:jmh-core-1.37.jar:jopt-simple-5.0.4.jar:commons-math3-3.6.1.jar org.openjdk.jmh.Main
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WheelAdapterBenchmark {
+
+    /** 条目个数, 例如 分钟 */
+    private static final int COUNT = 60;
+
+    private NumericWheelAdapter numeric;
+    private NumericWheelAdapter numericFormat;
+    /** 条目太多, 不缓存格式化字符串 */
+    private NumericWheelAdapter numericFormatUncached;
+    private ArrayWheelAdapter<String> array;
+    private ArrayWheelAdapter<Integer> arrayBoxed;
+    private StringPoolWheelAdapter pool;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        numeric = new NumericWheelAdapter(0, COUNT - 1);
+        numericFormat = new NumericWheelAdapter(0, COUNT - 1, "%02d");
+        numericFormatUncached = new NumericWheelAdapter(0, 99999, "%05d");
+
+        String[] strings = new String[COUNT];
+        Integer[] boxed = new Integer[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            strings[i] = String.format("%02d", i);
+            boxed[i] = i;
+        }
+        array = new ArrayWheelAdapter<String>(strings);
+        arrayBoxed = new ArrayWheelAdapter<Integer>(boxed);
+
+        WheelStringPool.Builder builder = new WheelStringPool.Builder();
+        int[] ids = builder.addAll(strings);
+        pool = new StringPoolWheelAdapter(builder.build(), ids);
+    }
+
+    /**
+     * 不保存条目的适配器, 条目个数从 10 到 int 的最大值
+     * -- 从中间的条目开始依次获取, 耗时应该与条目个数无关
+     */
+    @State(Scope.Thread)
+    public static class RangeState {
+
+        @Param({ "10", "1000", "100000", "10000000", "100000000", "2147483647" })
+        int itemCount;
+
+        LongRangeWheelAdapter longRange;
+        NumericWheelAdapter numericRange;
+        int index;
+
+        @Setup
+        public void setUp() {
+            longRange = new LongRangeWheelAdapter(1500000000000L, 1000, itemCount);
+            numericRange = new NumericWheelAdapter(0, itemCount - 1);
+            index = itemCount / 2;
+        }
+
+        int nextIndex() {
+            index = index + 1 < itemCount ? index + 1 : 0;
+            return index;
+        }
+    }
+
+    private int nextIndex() {
+        index = index + 1 < COUNT ? index + 1 : 0;
+        return index;
+    }
+
+    @Benchmark
+    public String numericGetItem() {
+        return numeric.getItem(nextIndex());
+    }
+
+    @Benchmark
+    public String numericFormatGetItem() {
+        return numericFormat.getItem(nextIndex());
+    }
+
+    @Benchmark
+    public String numericFormatUncachedGetItem() {
+        return numericFormatUncached.getItem(nextIndex());
+    }
+
+    @Benchmark
+    public String arrayGetItem() {
+        return array.getItem(nextIndex());
+    }
+
+    @Benchmark
+    public String arrayBoxedGetItem() {
+        return arrayBoxed.getItem(nextIndex());
+    }
+
+    @Benchmark
+    public String stringPoolGetItem() {
+        return pool.getItem(nextIndex());
+    }
+
+    @Benchmark
+    public String longRangeGetItem(RangeState state) {
+        return state.longRange.getItem(state.nextIndex());
+    }
+
+    @Benchmark
+    public String numericRangeGetItem(RangeState state) {
+        return state.numericRange.getItem(state.nextIndex());
+    }
+}
@@ -0,0 +1,44 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 可循环索引转换的基准 (getRealIndex, setCurrentItem, 滚动引擎中使用)
+ * 耗时应当与索引的距离无关
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WheelMathBenchmark {
+
+    /** 条目个数 */
+    private static final int COUNT = 60;
+
+    /** 要转换的索引, 从绘制时的相邻行到程序设置的很远的条目 */
+    @Param({ "-1", "-600", "-600000" })
+    public int index;
+
+    @Benchmark
+    public int normalize() {
+        return WheelMath.normalize(index, COUNT);
+    }
+
+    @Benchmark
+    public int cyclicDistance() {
+        return WheelMath.cyclicDistance(3, WheelMath.normalize(index, COUNT), COUNT);
+    }
+}
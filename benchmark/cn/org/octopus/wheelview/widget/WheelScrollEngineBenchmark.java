@@ -0,0 +1,120 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 滚动引擎的基准: 拖动时的偏移计算, 单个动画帧, 和 一次完整急冲的所有帧
+ * -- 条目个数从 10 到 int 的最大值, 每帧的耗时应该与条目个数无关
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WheelScrollEngineBenchmark implements WheelScrollEngine.Callback {
+
+    private static final int ITEM_HEIGHT = 50;
+    private static final long FRAME_NANOS = 16666667L;
+
+    /** 条目个数 */
+    @Param({ "10", "1000", "100000", "10000000", "100000000", "2147483647" })
+    private int itemCount;
+
+    /** 是否循环 */
+    @Param({ "true", "false" })
+    private boolean cyclic;
+
+    private WheelScrollEngine engine;
+    private boolean frameRequested;
+    /** frame 基准中下一帧的时间 */
+    private long frameTime;
+    /** frame 基准中急冲的速度, 每次急冲反向, 保持在中间的条目附近 */
+    private float flingVelocity = 2000;
+    private int itemChanges;
+    /** 拖动的方向, 每次反向, 保持在同一个位置附近 */
+    private int dragDelta = 7;
+
+    @Setup
+    public void setUp() {
+        engine = new WheelScrollEngine(this);
+        engine.setFriction(WheelScrollEngine.DEFAULT_FRICTION, 2.0f);
+        engine.setLayout(ITEM_HEIGHT, itemCount, cyclic, ITEM_HEIGHT * 5);
+        engine.setCurrentItem(itemCount / 2);
+    }
+
+    /**
+     * 一次拖动: 改变偏移, 超过条目高度时改变当前条目
+     */
+    @Benchmark
+    public int drag() {
+        dragDelta = -dragDelta;
+        engine.drag(dragDelta * 5);
+        return engine.getOffset();
+    }
+
+    /**
+     * 一个动画帧, 上一次急冲结束时开始新的急冲
+     */
+    @Benchmark
+    public int frame() {
+        if (!frameRequested) {
+            flingVelocity = -flingVelocity;
+            engine.fling(flingVelocity);
+        }
+        frameRequested = false;
+        frameTime += FRAME_NANOS;
+        engine.doFrame(frameTime);
+        return engine.getCurrentItem();
+    }
+
+    /**
+     * 一次急冲从开始到调整结束的所有帧
+     */
+    @Benchmark
+    public int flingFrames() {
+        flingVelocity = -flingVelocity;
+        engine.fling(flingVelocity);
+        long frameTime = 0;
+        while (frameRequested) {
+            frameRequested = false;
+            engine.doFrame(frameTime);
+            frameTime += FRAME_NANOS;
+        }
+        return engine.getCurrentItem();
+    }
+
+    @Override
+    public void onScrollingStarted() {
+    }
+
+    @Override
+    public void onItemChanged(int oldItem, int newItem) {
+        itemChanges++;
+    }
+
+    @Override
+    public void onOffsetChanged() {
+    }
+
+    @Override
+    public void onScrollingFinished() {
+    }
+
+    @Override
+    public void requestFrame() {
+        frameRequested = true;
+    }
+}
@@ -0,0 +1,167 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.Random;
+
+/**
+ * 字符串池的内存基准, 比较 ArrayWheelAdapter<String> 和 StringPoolWheelAdapter 保留的堆内存
+ * -- 数据模拟全国的 省 / 市 / 区县 三级行政区划, 包括大量重复的名称 (例如 市辖区) 和 前后填充空格的名称
+ * -- 每个字符串都是单独的对象, 与从文件中读取的数据相同
+ * -- 使用 Runtime 统计 GC 之后的堆内存, 结果是估算值, 运行多次取最小值
+ * -- JMH 不统计保留的内存, 所以这个基准使用 main 方法, 与 JMH 基准一起编译:
+ *    java -cp out:<src 编译结果> cn.org.octopus.wheelview.widget.WheelStringPoolBenchmark
+ */
+public class WheelStringPoolBenchmark {
+
+    private static final int PROVINCES = 34;
+    private static final int CITIES_PER_PROVINCE = 10;
+    private static final int COUNTIES_PER_CITY = 9;
+    private static final int ROUNDS = 5;
+
+    /** 各地常见的重复名称 */
+    private static final String[] COMMON = { "市辖区", "城区", "郊区", "矿区", "新华区", "长安区", "桥西区", "桥东区",
+            "开发区", "高新区", "经济技术开发区", "朝阳区", "和平区", "铁西区", "铁东区", "城关镇", "向阳区", "  市辖区  " };
+
+    private static final String SYLLABLES = "安平宁阳山江河城东西南北新丰永和兴泰清华德昌盛武文金石乐康长庆";
+
+    public static void main(String[] args) {
+        String[][][] data = generate(new Random(2014));
+        int rows = 0;
+        for (String[][] cities : data) {
+            for (String[] counties : cities) {
+                rows += counties.length + 1;
+            }
+        }
+        rows += PROVINCES;
+
+        long arrayBytes = Long.MAX_VALUE;
+        long poolBytes = Long.MAX_VALUE;
+        int unique = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            //测量期间结果保存在静态字段中, 复制的原始数据在构建之后成为垃圾, 不计入结果
+            long before = usedMemory();
+            retained = buildArrayAdapters(copy(data));
+            arrayBytes = Math.min(arrayBytes, usedMemory() - before);
+            retained = null;
+
+            before = usedMemory();
+            Object[] pooled = buildPoolAdapters(copy(data));
+            retained = pooled;
+            pooled = null;
+            poolBytes = Math.min(poolBytes, usedMemory() - before);
+            unique = ((WheelStringPool) ((Object[]) retained)[0]).size();
+            retained = null;
+        }
+
+        System.out.println("rows: " + rows + ", unique strings: " + unique);
+        System.out.println("ArrayWheelAdapter<String>: " + arrayBytes / 1024 + " KB");
+        System.out.println("StringPoolWheelAdapter:    " + poolBytes / 1024 + " KB");
+    }
+
+    /**
+     * 生成三级数据, 省份 -> 城市 -> 区县
+     */
+    private static String[][][] generate(Random random) {
+        String[][][] data = new String[PROVINCES][CITIES_PER_PROVINCE][];
+        for (int p = 0; p < PROVINCES; p++) {
+            for (int c = 0; c < CITIES_PER_PROVINCE; c++) {
+                String[] counties = new String[COUNTIES_PER_CITY + random.nextInt(COUNTIES_PER_CITY)];
+                for (int i = 0; i < counties.length; i++) {
+                    if (random.nextInt(3) == 0) {
+                        counties[i] = COMMON[random.nextInt(COMMON.length)];
+                    } else {
+                        counties[i] = name(random) + (random.nextBoolean() ? "县" : "区");
+                    }
+                }
+                data[p][c] = counties;
+            }
+        }
+        return data;
+    }
+
+    private static String name(Random random) {
+        int length = 2 + random.nextInt(2);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(SYLLABLES.charAt(random.nextInt(SYLLABLES.length())));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 复制数据, 每个字符串都是新的对象
+     */
+    private static String[][][] copy(String[][][] data) {
+        String[][][] result = new String[data.length][][];
+        for (int p = 0; p < data.length; p++) {
+            result[p] = new String[data[p].length][];
+            for (int c = 0; c < data[p].length; c++) {
+                result[p][c] = new String[data[p][c].length];
+                for (int i = 0; i < data[p][c].length; i++) {
+                    result[p][c][i] = new String(data[p][c][i].toCharArray());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 每个省份, 城市 的下一级各一个 ArrayWheelAdapter, 省份和城市名称也单独保存
+     */
+    private static Object buildArrayAdapters(String[][][] data) {
+        Object[] adapters = new Object[data.length * (CITIES_PER_PROVINCE + 1) + 1];
+        int n = 0;
+        String[] provinces = new String[data.length];
+        for (int p = 0; p < data.length; p++) {
+            provinces[p] = new String(("  省" + p + "  ").toCharArray());
+            String[] cities = new String[data[p].length];
+            for (int c = 0; c < cities.length; c++) {
+                cities[c] = new String(("市" + p + "_" + c).toCharArray());
+                adapters[n++] = new ArrayWheelAdapter<String>(data[p][c]);
+            }
+            adapters[n++] = new ArrayWheelAdapter<String>(cities);
+        }
+        adapters[n] = new ArrayWheelAdapter<String>(provinces);
+        return adapters;
+    }
+
+    /**
+     * 相同的结构, 所有字符串放到一个字符串池中
+     */
+    private static Object[] buildPoolAdapters(String[][][] data) {
+        WheelStringPool.Builder builder = new WheelStringPool.Builder();
+        Object[] adapters = new Object[data.length * (CITIES_PER_PROVINCE + 1) + 2];
+        int n = 1;
+        int[] provinces = new int[data.length];
+        int[][] cityIds = new int[data.length][];
+        int[][][] countyIds = new int[data.length][][];
+        for (int p = 0; p < data.length; p++) {
+            provinces[p] = builder.add(new String(("  省" + p + "  ").toCharArray()));
+            cityIds[p] = new int[data[p].length];
+            for (int c = 0; c < data[p].length; c++) {
+                cityIds[p][c] = builder.add(new String(("市" + p + "_" + c).toCharArray()));
+            }
+            countyIds[p] = builder.addAll(data[p]);
+        }
+        WheelStringPool pool = builder.build();
+        adapters[0] = pool;
+        for (int p = 0; p < data.length; p++) {
+            for (int c = 0; c < data[p].length; c++) {
+                adapters[n++] = new StringPoolWheelAdapter(pool, countyIds[p][c]);
+            }
+            adapters[n++] = new StringPoolWheelAdapter(pool, cityIds[p]);
+        }
+        adapters[n] = new StringPoolWheelAdapter(pool, provinces);
+        return adapters;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** 测量期间保留的对象 */
+    private static Object retained;
+}
@@ -5,6 +5,7 @@ import android.app.AlertDialog;
 import android.app.Fragment;
 import android.content.Context;
 import android.content.DialogInterface;
+import android.os.AsyncTask;
 import android.os.Bundle;
 import android.view.Gravity;
 import android.view.LayoutInflater;
@@ -15,9 +16,10 @@ import android.view.ViewGroup;
 import android.view.ViewGroup.LayoutParams;
 import android.widget.Button;
 import android.widget.LinearLayout;
-import cn.org.octopus.wheelview.widget.ArrayWheelAdapter;
-import cn.org.octopus.wheelview.widget.OnWheelChangedListener;
-import cn.org.octopus.wheelview.widget.OnWheelScrollListener;
+import cn.org.octopus.wheelview.widget.LinkedWheels;
+import cn.org.octopus.wheelview.widget.WheelAdapter;
+import cn.org.octopus.wheelview.widget.WheelPrewarm;
+import cn.org.octopus.wheelview.widget.WheelStringPool;
 import cn.org.octopus.wheelview.widget.WheelView;
 
 public class MainActivity extends Activity{
@@ -26,16 +28,22 @@ public class MainActivity extends Activity{
 	
 	private static Button bt_click;
 	
-	public String province[] = new String[] { "  河北省  ", "  山西省  ", "  内蒙古  ", "  辽宁省  ", "  吉林省  ", "  黑龙江  ", "  江苏省  " };
-
-    public String city[][] = new String[][] {
-            new String[] {"  石家庄  ", "唐山", "秦皇岛", "邯郸", "邢台", "保定", "张家口", "承德", "沧州", "廊坊", "衡水"},
-            new String[] {"太原", "大同", "阳泉", "长治", "晋城", "朔州", "晋中", "运城", "忻州", "临汾", "吕梁"},
-            new String[] {"呼和浩特", "包头", "乌海", "赤峰", "通辽", "鄂尔多斯", "呼伦贝尔", "巴彦淖尔", "乌兰察布", "兴安", "锡林郭勒", "阿拉善"},
-            new String[] {"沈阳", "大连", "鞍山", "抚顺", "本溪", "丹东", "锦州", "营口", "阜新", "辽阳", "盘锦", "铁岭", "朝阳", "葫芦岛"},
-            new String[] {"长春", "吉林", "四平", "辽源", "通化", "白山", "松原", "白城", "延边"},
-            new String[] {"哈尔滨", "齐齐哈尔", "鸡西", "鹤岗", "双鸭山", "大庆", "伊春", "佳木斯", "七台河", "牡丹江", "黑河", "绥化", "大兴安岭"},
-            new String[] {"南京", "无锡", "徐州", "常州", "苏州", "南通", "连云港", "淮安", "盐城", "扬州", "镇江", "泰州", "宿迁"} };
+	/** 对话框中 WheelView 显示的条目个数, 预热时按这个个数创建首屏的条目布局 */
+	private static final int VISIBLE_ITEMS = 5;
+	/** 左侧 (省份) WheelView 是否循环 */
+	private static final boolean LEFT_CYCLIC = false;
+	/** 右侧 (城市) WheelView 是否循环 */
+	private static final boolean RIGHT_CYCLIC = true;
+	
+    /**
+     * 省份和城市的级联数据源, 数据去重保存在一个字符串池中
+     * 第一次打开界面时创建, 之后所有的对话框 (包括界面重建之后) 共享, 只能在 UI 线程中访问
+     */
+    private static LinkedWheels.DataSource addressSource;
+    
+    /** 为下一次打开对话框预热的左右两个 WheelView 的资源, 还没有预热完成时为 null */
+    private WheelPrewarm prewarmLeft;
+    private WheelPrewarm prewarmRight;
 	
 	@Override
 	protected void onCreate(Bundle savedInstanceState) {
@@ -46,17 +54,103 @@ public class MainActivity extends Activity{
 			getFragmentManager().beginTransaction()
 					.add(R.id.container, new PlaceholderFragment()).commit();
 		}
+		
+		if (addressSource == null) {
+			addressSource = createAddressSource();
+		}
+		
+		//在后台线程中预热对话框中的 WheelView, 打开对话框时第一帧不需要加载图片和创建画笔
+		prewarmWheels();
+	}
+	
+	/**
+	 * 创建省份和城市的级联数据源
+	 * 原始数组只在创建时使用, 之后只保留字符串池 和 每一级的字符串编号
+	 * 
+	 * @return 
+	 * 		级联数据源
+	 */
+	private static LinkedWheels.DataSource createAddressSource() {
+		String[] province = new String[] { "  河北省  ", "  山西省  ", "  内蒙古  ", "  辽宁省  ", "  吉林省  ", "  黑龙江  ", "  江苏省  " };
+
+		String[][] city = new String[][] {
+				new String[] {"  石家庄  ", "唐山", "秦皇岛", "邯郸", "邢台", "保定", "张家口", "承德", "沧州", "廊坊", "衡水"},
+				new String[] {"太原", "大同", "阳泉", "长治", "晋城", "朔州", "晋中", "运城", "忻州", "临汾", "吕梁"},
+				new String[] {"呼和浩特", "包头", "乌海", "赤峰", "通辽", "鄂尔多斯", "呼伦贝尔", "巴彦淖尔", "乌兰察布", "兴安", "锡林郭勒", "阿拉善"},
+				new String[] {"沈阳", "大连", "鞍山", "抚顺", "本溪", "丹东", "锦州", "营口", "阜新", "辽阳", "盘锦", "铁岭", "朝阳", "葫芦岛"},
+				new String[] {"长春", "吉林", "四平", "辽源", "通化", "白山", "松原", "白城", "延边"},
+				new String[] {"哈尔滨", "齐齐哈尔", "鸡西", "鹤岗", "双鸭山", "大庆", "伊春", "佳木斯", "七台河", "牡丹江", "黑河", "绥化", "大兴安岭"},
+				new String[] {"南京", "无锡", "徐州", "常州", "苏州", "南通", "连云港", "淮安", "盐城", "扬州", "镇江", "泰州", "宿迁"} };
+		
+		//相同的字符串在字符串池中只保存一次
+		WheelStringPool.Builder builder = new WheelStringPool.Builder();
+		int[] provinceIds = builder.addAll(province);
+		int[][] cityIds = builder.addAll(city);
+		return LinkedWheels.fromPool(builder.build(), provinceIds, cityIds);
+	}
+	
+	/**
+	 * 在后台线程中预热左右两个 WheelView 的画笔, 装饰, 条目高度 和 首屏的条目布局
+	 * 对话框打开时左侧显示第一个省份, 右侧显示第一个省份的城市, 都从第一个条目开始
+	 */
+	private void prewarmWheels() {
+		int[] path = new int[2];
+		WheelAdapter provinces = addressSource.getAdapter(0, path);
+		WheelAdapter cities = addressSource.getAdapter(1, path);
+		WheelPrewarm.prepareAsync(AsyncTask.THREAD_POOL_EXECUTOR, this, provinces, VISIBLE_ITEMS, 0, LEFT_CYCLIC, null,
+				new WheelPrewarm.OnPrewarmedListener() {
+					@Override
+					public void onPrewarmed(WheelPrewarm prewarm) {
+						prewarmLeft = prewarm;
+					}
+				});
+		WheelPrewarm.prepareAsync(AsyncTask.THREAD_POOL_EXECUTOR, this, cities, VISIBLE_ITEMS, 0, RIGHT_CYCLIC, null,
+				new WheelPrewarm.OnPrewarmedListener() {
+					@Override
+					public void onPrewarmed(WheelPrewarm prewarm) {
+						prewarmRight = prewarm;
+					}
+				});
+	}
+	
+	/**
+	 * 创建优先使用预热的适配器的数据源
+	 * 预热的测量结果只能用于测量时的适配器对象, 第一个省份 和 它的城市返回预热的适配器, 其它的由 dataSource 创建
+	 * 
+	 * @param dataSource
+	 *            原数据源
+	 * @param provinces
+	 *            预热的省份适配器
+	 * @param firstCities
+	 *            预热的第一个省份的城市适配器
+	 * @return 
+	 * 		数据源
+	 */
+	private static LinkedWheels.DataSource withPrewarmed(final LinkedWheels.DataSource dataSource,
+			final WheelAdapter provinces, final WheelAdapter firstCities) {
+		return new LinkedWheels.DataSource() {
+			@Override
+			public WheelAdapter getAdapter(int level, int[] path) {
+				//没有条目的适配器不会被测量, 预热的适配器为 null
+				if (level == 0 && provinces != null) {
+					return provinces;
+				} else if (level == 1 && path[0] == 0 && firstCities != null) {
+					return firstCities;
+				}
+				return dataSource.getAdapter(level, path);
+			}
+		};
 	}
 	
 	/*
 	 * 点击事件
 	 */
 	public void onClick(View view) {
-		showSelectDialog(this, "选择地点", province, city);
+		showSelectDialog(this, "选择地点", addressSource);
 	}
 
 	
-	private void showSelectDialog(Context context, String title, final String[] left, final String[][] right) {
+	private void showSelectDialog(Context context, String title, LinkedWheels.DataSource dataSource) {
     	//创建对话框
         AlertDialog dialog = new AlertDialog.Builder(context).create();
         //为对话框设置标题
@@ -68,19 +162,15 @@ public class MainActivity extends Activity{
         //创建 WheelView 组件
         final WheelView wheelLeft = new WheelView(context);
         //设置 WheelView 组件最多显示 5 个元素
-        wheelLeft.setVisibleItems(5);
+        wheelLeft.setVisibleItems(VISIBLE_ITEMS);
         //设置 WheelView 元素是否循环滚动
-        wheelLeft.setCyclic(false);
-        //设置 WheelView 适配器
-        wheelLeft.setAdapter(new ArrayWheelAdapter<String>(left));
+        wheelLeft.setCyclic(LEFT_CYCLIC);
         //设置右侧的 WheelView
         final WheelView wheelRight = new WheelView(context);
         //设置右侧 WheelView 显示个数
-        wheelRight.setVisibleItems(5);
+        wheelRight.setVisibleItems(VISIBLE_ITEMS);
         //设置右侧 WheelView 元素是否循环滚动
-        wheelRight.setCyclic(true);
-        //设置右侧 WheelView 的元素适配器
-        wheelRight.setAdapter(new ArrayWheelAdapter<String>(right[0]));
+        wheelRight.setCyclic(RIGHT_CYCLIC);
         //设置 LinearLayout 的布局参数
         LinearLayout.LayoutParams paramsLeft = new LinearLayout.LayoutParams(LayoutParams.WRAP_CONTENT,
                 LayoutParams.WRAP_CONTENT, 4);
@@ -93,39 +183,33 @@ public class MainActivity extends Activity{
         //将 WheelView 对象放到 右侧 LinearLayout 中
         llContent.addView(wheelRight, paramsRight);
         
-        //为左侧的 WheelView 设置条目改变监听器
-        wheelLeft.addChangingListener(new OnWheelChangedListener() {
-            @Override
-            public void onChanged(WheelView wheel, int oldValue, int newValue) {
-            	//设置右侧的 WheelView 的适配器
-                wheelRight.setAdapter(new ArrayWheelAdapter<String>(right[newValue]));
-                wheelRight.setCurrentItem(right[newValue].length / 2);
-            }
-        });
+        //使用预热的资源 和 预热时测量的适配器, 并为下一次打开对话框重新预热
+        if (prewarmLeft != null && prewarmRight != null) {
+            wheelLeft.applyPrewarm(prewarmLeft);
+            wheelRight.applyPrewarm(prewarmRight);
+            dataSource = withPrewarmed(dataSource, prewarmLeft.getAdapter(), prewarmRight.getAdapter());
+            prewarmLeft = prewarmRight = null;
+            prewarmWheels();
+        }
         
-        wheelLeft.addScrollingListener(new OnWheelScrollListener() {
-			
-			@Override
-			public void onScrollingStarted(WheelView wheel) {
-				// TODO Auto-generated method stub
-				
-			}
-			
-			@Override
-			public void onScrollingFinished(WheelView wheel) {
-				// TODO Auto-generated method stub
-				
-			}
-		});
+        //在后台线程中预先测量条目, 对话框显示时不需要在 UI 线程中测量
+        wheelLeft.setMeasureExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        wheelRight.setMeasureExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        
+        /*
+         * 将左右两个 WheelView 级联起来
+         * 左侧停止滚动之后刷新右侧的适配器, 每个省份对应的城市适配器 和 条目布局都会被缓存
+         */
+        final LinkedWheels linkedWheels = new LinkedWheels(dataSource, wheelLeft, wheelRight);
+        //第一次选中某个省份时, 城市从中间的条目开始显示
+        linkedWheels.setInitialSelection(LinkedWheels.SELECT_MIDDLE);
         
         //设置对话框点击事件 积极
         dialog.setButton(AlertDialog.BUTTON_POSITIVE, "确定", new DialogInterface.OnClickListener() {
             @Override
             public void onClick(DialogInterface dialog, int which) {
-                int leftPosition = wheelLeft.getCurrentItem();
-                String vLeft = left[leftPosition];
-                String vRight = right[leftPosition][wheelRight.getCurrentItem()];
-                bt_click.setText(vLeft + "-" + vRight);
+                String[] selected = linkedWheels.getSelectedItems();
+                bt_click.setText(selected[0] + "-" + selected[1]);
                 dialog.dismiss();
             }
         });
@@ -2,11 +2,12 @@ package cn.org.octopus.wheelview.widget;
 
 /**
  * WheelView 的适配器类
+ * 支持按文字查找条目, 第一次查找时建立查找索引, 建立之后不要再修改数组中的元素
  * 
  * @param <T>
  *            元素类型
  */
-public class ArrayWheelAdapter<T> implements WheelAdapter {
+public class ArrayWheelAdapter<T> implements IndexedWheelAdapter {
 
     /** 适配器的 元素集合(数据源) 默认长度为 -1 */
     public static final int DEFAULT_LENGTH = -1;
@@ -15,6 +16,8 @@ public class ArrayWheelAdapter<T> implements WheelAdapter {
     private T items[];
     /** WheelView 的宽度 */
     private int length;
+    /** 查找索引, 第一次查找时建立 */
+    private WheelSearchIndex searchIndex;
 
     /**
      * 构造方法
@@ -61,4 +64,26 @@ public class ArrayWheelAdapter<T> implements WheelAdapter {
         return length;
     }
 
+    @Override
+    public int findPrefix(String prefix) {
+        return getSearchIndex().findPrefix(prefix);
+    }
+
+    @Override
+    public int findNearest(String text) {
+        return getSearchIndex().findNearest(text);
+    }
+
+    /**
+     * 获取查找索引, 没有时建立
+     * 
+     * @return 
+     * 		查找索引
+     */
+    private WheelSearchIndex getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = WheelSearchIndex.build(this);
+        }
+        return searchIndex;
+    }
 }
@@ -0,0 +1,311 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.SparseBooleanArray;
+
+/**
+ * 异步分页加载数据的 WheelView 适配器
+ * -- 条目按页加载, 加载在后台线程池中执行, 例如从数据库中查询
+ * -- 还没有加载的条目显示占位字符串, 加载完成之后通过 notifyItemRangeChanged 通知 WheelView 更新这些条目
+ * -- 加载完成的页保存在有限容量的 LRU 缓存中
+ * -- 除了 loadPage 之外, 所有方法只能在 UI 线程中调用
+ */
+public abstract class AsyncWheelAdapter extends BaseObservableWheelAdapter {
+
+    /** 默认的占位字符串 */
+    public static final String DEFAULT_PLACEHOLDER = "...";
+
+    /** 默认的每页条目数 */
+    public static final int DEFAULT_PAGE_SIZE = 32;
+
+    /** 默认最多缓存的页数 */
+    public static final int DEFAULT_MAX_CACHED_PAGES = 16;
+
+    /**
+     * 页加载完成监听器
+     */
+    public interface OnPageLoadedListener {
+        /**
+         * 一页数据加载完成之后在 UI 线程中回调
+         *
+         * @param adapter
+         *            加载数据的适配器
+         * @param start
+         *            该页第一个条目的索引
+         * @param count
+         *            该页的条目个数
+         */
+        void onPageLoaded(AsyncWheelAdapter adapter, int start, int count);
+    }
+
+    /** 条目个数 */
+    private final int itemsCount;
+    /** 每页的条目数 */
+    private final int pageSize;
+    /** 执行加载任务的线程池 */
+    private final Executor executor;
+
+    /** 已经加载的页, 以页索引为键 */
+    private final IntLruCache<String[]> pages;
+    /** 正在加载的页 */
+    private final SparseBooleanArray loadingPages = new SparseBooleanArray();
+    /** 数据版本, 清空缓存时加一, 之前开始加载的页完成之后被丢弃 */
+    private int generation;
+
+    /** 最近一次预加载的中心页, 后台线程用来跳过已经滚动过去的页 */
+    private volatile int centerPage;
+
+    /** 用于将加载结果发送到 UI 线程 */
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /** 页加载完成监听器集合 */
+    private final List<OnPageLoadedListener> listeners = new ArrayList<OnPageLoadedListener>();
+
+    /** 占位字符串 */
+    private String placeholder = DEFAULT_PLACEHOLDER;
+
+    /**
+     * 构造方法
+     *
+     * @param itemsCount
+     *            条目个数
+     * @param executor
+     *            执行加载任务的线程池
+     */
+    public AsyncWheelAdapter(int itemsCount, Executor executor) {
+        this(itemsCount, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES, executor);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param itemsCount
+     *            条目个数
+     * @param pageSize
+     *            每页的条目数
+     * @param maxCachedPages
+     *            最多缓存的页数
+     * @param executor
+     *            执行加载任务的线程池
+     */
+    public AsyncWheelAdapter(int itemsCount, int pageSize, int maxCachedPages, Executor executor) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize <= 0");
+        }
+        this.itemsCount = itemsCount;
+        this.pageSize = pageSize;
+        this.executor = executor;
+        this.pages = new IntLruCache<String[]>(maxCachedPages);
+    }
+
+    /**
+     * 加载一页数据, 在后台线程中执行
+     *
+     * @param start
+     *            第一个条目的索引
+     * @param count
+     *            要加载的条目个数
+     * @return
+     * 		加载的条目, 长度可以小于 count, 不足的条目显示为空;
+     * 		返回 null 或者抛出异常时该页仍然显示占位字符串, 之后获取条目时重新加载
+     */
+    protected abstract String[] loadPage(int start, int count);
+
+    /**
+     * 设置占位字符串, 条目还没有加载时显示该字符串
+     *
+     * @param placeholder
+     *            占位字符串
+     */
+    public void setPlaceholder(String placeholder) {
+        this.placeholder = placeholder;
+    }
+
+    /**
+     * 添加页加载完成监听器
+     *
+     * @param listener
+     *            the listener
+     */
+    public void addOnPageLoadedListener(OnPageLoadedListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * 移除页加载完成监听器
+     *
+     * @param listener
+     *            the listener
+     */
+    public void removeOnPageLoadedListener(OnPageLoadedListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public int getItemsCount() {
+        return itemsCount;
+    }
+
+    @Override
+    public String getItem(int index) {
+        if (index < 0 || index >= itemsCount) {
+            return null;
+        }
+        int page = index / pageSize;
+        String[] items = pages.get(page);
+        if (items == null) {
+            //还没有加载, 开始加载该页并显示占位字符串
+            requestPage(page);
+            return placeholder;
+        }
+        int offset = index - page * pageSize;
+        return offset < items.length ? items[offset] : null;
+    }
+
+    /**
+     * 条目是否已经加载
+     *
+     * @param index
+     *            条目索引
+     * @return
+     * 		已经加载返回 true
+     */
+    public boolean isItemLoaded(int index) {
+        return pages.get(index / pageSize) != null;
+    }
+
+    /**
+     * 预加载当前条目附近的条目
+     *
+     * @param center
+     *            当前条目索引
+     * @param direction
+     *            滚动方向, 大于 0 向后, 小于 0 向前, 等于 0 两个方向各加载一半
+     * @param window
+     *            预加载的条目个数
+     */
+    public void prefetch(int center, int direction, int window) {
+        int from;
+        int to;
+        if (direction > 0) {
+            from = center;
+            to = center + window;
+        } else if (direction < 0) {
+            from = center - window;
+            to = center;
+        } else {
+            from = center - window / 2;
+            to = center + window / 2;
+        }
+        from = Math.max(from, 0);
+        to = Math.min(to, itemsCount - 1);
+        if (from > to) {
+            return;
+        }
+
+        centerPage = center / pageSize;
+        //先加载当前条目所在的页, 然后沿滚动方向加载
+        requestPage(centerPage);
+        int firstPage = from / pageSize;
+        int lastPage = to / pageSize;
+        if (direction < 0) {
+            for (int page = lastPage; page >= firstPage; page--) {
+                requestPage(page);
+            }
+        } else {
+            for (int page = firstPage; page <= lastPage; page++) {
+                requestPage(page);
+            }
+        }
+    }
+
+    /**
+     * 清空缓存的页, 数据源改变之后调用, 之后获取条目会重新加载
+     * 正在加载的页完成之后不会放入缓存
+     */
+    public void clearPages() {
+        generation++;
+        pages.clear();
+        loadingPages.clear();
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 开始加载一页, 如果该页已经加载或者正在加载, 不做任何操作
+     *
+     * @param page
+     *            页索引
+     */
+    private void requestPage(int page) {
+        if (loadingPages.get(page) || pages.get(page) != null) {
+            return;
+        }
+        loadingPages.put(page, true);
+        executor.execute(new LoadTask(page, generation));
+    }
+
+    /**
+     * 页加载完成, 在 UI 线程中执行
+     */
+    private void onPageLoaded(int page, int generation, String[] items) {
+        //开始加载之后清空过缓存, 数据已经过期
+        if (generation != this.generation) {
+            return;
+        }
+        loadingPages.delete(page);
+        if (items == null) {
+            return;
+        }
+        pages.put(page, items);
+
+        int start = page * pageSize;
+        int count = Math.min(pageSize, itemsCount - start);
+        notifyItemRangeChanged(start, count);
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onPageLoaded(this, start, count);
+        }
+    }
+
+    /**
+     * 后台加载任务
+     */
+    private class LoadTask implements Runnable {
+
+        private final int page;
+        /** 开始加载时的数据版本 */
+        private final int generation;
+
+        LoadTask(int page, int generation) {
+            this.page = page;
+            this.generation = generation;
+        }
+
+        @Override
+        public void run() {
+            String[] items = null;
+            try {
+                //已经滚动过去很远的页不再加载, 缓存不下
+                if (Math.abs(page - centerPage) < pages.capacity()) {
+                    int start = page * pageSize;
+                    items = loadPage(start, Math.min(pageSize, itemsCount - start));
+                }
+            } finally {
+                //加载失败时也要清除正在加载的标记, 否则该页不会再加载
+                final String[] result = items;
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPageLoaded(page, generation, result);
+                    }
+                });
+            }
+        }
+    }
+}
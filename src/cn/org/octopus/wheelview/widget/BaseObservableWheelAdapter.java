@@ -0,0 +1,81 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * 可观察适配器的基类, 管理观察者并提供通知方法
+ * 子类修改数据之后, 在 UI 线程中调用对应的 notify 方法
+ */
+public abstract class BaseObservableWheelAdapter implements ObservableWheelAdapter {
+
+    /** 数据改变观察者集合, 回调过程中可以注册和注销 */
+    private final ListenerList<WheelAdapterObserver> observers = new ListenerList<WheelAdapterObserver>();
+
+    @Override
+    public void registerObserver(WheelAdapterObserver observer) {
+        observers.add(observer);
+    }
+
+    @Override
+    public void unregisterObserver(WheelAdapterObserver observer) {
+        observers.remove(observer);
+    }
+
+    @Override
+    public int getMaximumLength() {
+        return -1;
+    }
+
+    /**
+     * 通知观察者一段条目的内容改变了
+     * 
+     * @param start
+     *            第一个改变的条目索引
+     * @param count
+     *            改变的条目个数
+     */
+    public void notifyItemRangeChanged(int start, int count) {
+        Object[] array = observers.array();
+        for (int i = 0; i < array.length; i++) {
+            ((WheelAdapterObserver) array[i]).onItemRangeChanged(start, count);
+        }
+    }
+
+    /**
+     * 通知观察者插入了一段条目
+     * 
+     * @param start
+     *            第一个插入的条目索引
+     * @param count
+     *            插入的条目个数
+     */
+    public void notifyItemRangeInserted(int start, int count) {
+        Object[] array = observers.array();
+        for (int i = 0; i < array.length; i++) {
+            ((WheelAdapterObserver) array[i]).onItemRangeInserted(start, count);
+        }
+    }
+
+    /**
+     * 通知观察者移除了一段条目
+     * 
+     * @param start
+     *            第一个移除的条目在移除之前的索引
+     * @param count
+     *            移除的条目个数
+     */
+    public void notifyItemRangeRemoved(int start, int count) {
+        Object[] array = observers.array();
+        for (int i = 0; i < array.length; i++) {
+            ((WheelAdapterObserver) array[i]).onItemRangeRemoved(start, count);
+        }
+    }
+
+    /**
+     * 通知观察者数据整体改变了
+     */
+    public void notifyDataSetChanged() {
+        Object[] array = observers.array();
+        for (int i = 0; i < array.length; i++) {
+            ((WheelAdapterObserver) array[i]).onDataSetChanged();
+        }
+    }
+}
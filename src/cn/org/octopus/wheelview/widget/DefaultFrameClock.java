@@ -0,0 +1,127 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.ArrayList;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+/**
+ * 默认的帧时钟
+ * -- Android 4.1 (API 16) 以上使用 Choreographer, 回调与屏幕的垂直同步信号对齐
+ * -- 更低的版本使用 Handler, 按照 16 ms 的帧间隔对齐回调时间
+ * -- 只能在 UI 线程中使用, 请求和回调过程中不会创建新对象
+ */
+class DefaultFrameClock implements WheelFrameClock {
+
+    /** 没有 Choreographer 时使用的帧间隔 */
+    private static final long FRAME_INTERVAL_MILLIS = 16;
+
+    /** 等待下一帧回调的回调集合 */
+    private final ArrayList<FrameCallback> pending = new ArrayList<FrameCallback>();
+    /** 分发回调时使用的数组, 分发过程中可以安全的请求下一帧 */
+    private FrameCallback[] dispatching = new FrameCallback[1];
+
+    /** 是否已经请求了下一帧 */
+    private boolean scheduled;
+
+    /** API 16 以上使用的 Choreographer 调度器 */
+    private final ChoreographerScheduler choreographerScheduler;
+    /** 低版本使用的 Handler */
+    private final Handler handler;
+    /** 低版本使用 Handler 发送的帧任务 */
+    private final Runnable frameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            dispatchFrame(SystemClock.uptimeMillis() * 1000000L);
+        }
+    };
+
+    DefaultFrameClock() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            choreographerScheduler = new ChoreographerScheduler();
+            handler = null;
+        } else {
+            choreographerScheduler = null;
+            handler = new Handler();
+        }
+    }
+
+    @Override
+    public void postFrameCallback(FrameCallback callback) {
+        if (!pending.contains(callback)) {
+            pending.add(callback);
+        }
+        if (!scheduled) {
+            scheduled = true;
+            if (choreographerScheduler != null) {
+                choreographerScheduler.schedule();
+            } else {
+            	//对齐到下一个帧间隔
+                long now = SystemClock.uptimeMillis();
+                handler.postAtTime(frameRunnable, now - now % FRAME_INTERVAL_MILLIS + FRAME_INTERVAL_MILLIS);
+            }
+        }
+    }
+
+    @Override
+    public void removeFrameCallback(FrameCallback callback) {
+        pending.remove(callback);
+        if (pending.isEmpty() && scheduled) {
+            scheduled = false;
+            if (choreographerScheduler != null) {
+                choreographerScheduler.cancel();
+            } else {
+                handler.removeCallbacks(frameRunnable);
+            }
+        }
+    }
+
+    /**
+     * 分发一帧, 回调所有等待的回调
+     *
+     * @param frameTimeNanos
+     *            帧时间
+     */
+    private void dispatchFrame(long frameTimeNanos) {
+        scheduled = false;
+        int count = pending.size();
+        if (dispatching.length < count) {
+            dispatching = new FrameCallback[count];
+        }
+        for (int i = 0; i < count; i++) {
+            dispatching[i] = pending.get(i);
+        }
+        pending.clear();
+
+        for (int i = 0; i < count; i++) {
+            FrameCallback callback = dispatching[i];
+            dispatching[i] = null;
+            callback.doFrame(frameTimeNanos);
+        }
+    }
+
+    /**
+     * 使用 Choreographer 调度帧回调, 单独放在一个类中, 避免低版本加载 Choreographer
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private class ChoreographerScheduler implements Choreographer.FrameCallback {
+
+        private final Choreographer choreographer = Choreographer.getInstance();
+
+        void schedule() {
+            choreographer.postFrameCallback(this);
+        }
+
+        void cancel() {
+            choreographer.removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            dispatchFrame(frameTimeNanos);
+        }
+    }
+}
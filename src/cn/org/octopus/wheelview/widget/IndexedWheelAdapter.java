@@ -0,0 +1,28 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * 支持按文字查找条目的 WheelView 适配器接口
+ * 适配器使用预先建立的索引 (或者直接计算) 查找条目, 不需要逐个调用 getItem 比较
+ */
+public interface IndexedWheelAdapter extends WheelAdapter {
+    /**
+     * 查找以 prefix 开头的条目, 忽略大小写和首尾空白
+     * 有多个条目匹配时, 文字适配器返回按文字排序的第一个, 数字适配器返回数值最小的
+     * 
+     * @param prefix
+     *            前缀
+     * @return 
+     * 		条目的索引, 没有匹配的条目返回 -1
+     */
+    public int findPrefix(String prefix);
+
+    /**
+     * 查找最接近 text 的条目, 文字适配器按文字顺序比较, 数字适配器按数值比较
+     * 
+     * @param text
+     *            要查找的文字
+     * @return 
+     * 		条目的索引, 没有条目 或者 text 无法比较时返回 -1
+     */
+    public int findNearest(String text);
+}
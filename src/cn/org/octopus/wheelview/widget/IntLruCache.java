@@ -0,0 +1,353 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * 以 int 为键的定长 LRU 缓存
+ * -- 所有存储空间在构造时一次性分配, 存取时不会创建新对象, 键也不需要装箱成 Integer
+ * -- 超出容量时淘汰最久没有使用的条目
+ * -- 非线程安全, 只能在一个线程 (一般是 UI 线程) 中使用
+ *
+ * @param <V>
+ *            缓存的值类型
+ */
+class IntLruCache<V> {
+
+    /** 空位置标记 */
+    private static final int NONE = -1;
+
+    /** 缓存容量 */
+    private final int capacity;
+
+    /** 每个位置上的键 */
+    private final int[] keys;
+    /** 每个位置上的值 */
+    private final Object[] values;
+
+    /** 使用顺序双向链表, 头部是最近使用的位置, 尾部是最久没有使用的位置 */
+    private final int[] prev;
+    private final int[] next;
+    private int head = NONE;
+    private int tail = NONE;
+
+    /** 哈希桶, 存放每个桶中第一个位置 */
+    private final int[] buckets;
+    /** 哈希桶中的下一个位置 */
+    private final int[] bucketNext;
+    /** 哈希桶掩码, 桶的个数是 2 的幂 */
+    private final int mask;
+
+    /** 空闲位置链表, 使用 next 数组串联 */
+    private int freeHead;
+
+    /** 当前缓存的条目个数 */
+    private int size;
+
+    /**
+     * 构造方法
+     *
+     * @param capacity
+     *            缓存容量, 必须大于 0
+     */
+    IntLruCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity <= 0");
+        }
+        this.capacity = capacity;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        prev = new int[capacity];
+        next = new int[capacity];
+        bucketNext = new int[capacity];
+
+        //桶的个数取 不小于容量两倍的 2 的幂
+        int tableSize = 1;
+        while (tableSize < capacity * 2) {
+            tableSize <<= 1;
+        }
+        buckets = new int[tableSize];
+        mask = tableSize - 1;
+
+        resetSlots();
+    }
+
+    /**
+     * 获取缓存容量
+     *
+     * @return 缓存容量
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取当前缓存的条目个数
+     *
+     * @return 条目个数
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * 获取键对应的值, 并将该条目标记为最近使用
+     *
+     * @param key
+     *            键
+     * @return 缓存的值, 没有缓存返回 null
+     */
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int slot = findSlot(key);
+        if (slot == NONE) {
+            return null;
+        }
+        moveToHead(slot);
+        return (V) values[slot];
+    }
+
+    /**
+     * 缓存一个值, 如果缓存已满, 先淘汰最久没有使用的条目
+     *
+     * @param key
+     *            键
+     * @param value
+     *            值, 不能为 null
+     */
+    @SuppressWarnings("unchecked")
+    void put(int key, V value) {
+        int slot = findSlot(key);
+        if (slot != NONE) {
+            V old = (V) values[slot];
+            values[slot] = value;
+            moveToHead(slot);
+            if (old != value) {
+                entryRemoved(key, old);
+            }
+            return;
+        }
+
+        //没有空闲位置, 淘汰链表尾部的条目
+        if (freeHead == NONE) {
+            removeSlot(tail);
+        }
+
+        slot = freeHead;
+        freeHead = next[slot];
+
+        keys[slot] = key;
+        values[slot] = value;
+
+        int bucket = bucketOf(key);
+        bucketNext[slot] = buckets[bucket];
+        buckets[bucket] = slot;
+
+        linkHead(slot);
+        size++;
+    }
+
+    /**
+     * 移除键对应的条目
+     *
+     * @param key
+     *            键
+     * @return 被移除的值, 没有缓存返回 null
+     */
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        int slot = findSlot(key);
+        if (slot == NONE) {
+            return null;
+        }
+        V value = (V) values[slot];
+        removeSlot(slot);
+        return value;
+    }
+
+    /**
+     * 移除最久没有使用的条目
+     *
+     * @return 是否移除了条目, 缓存为空时返回 false
+     */
+    boolean removeEldest() {
+        if (tail == NONE) {
+            return false;
+        }
+        removeSlot(tail);
+        return true;
+    }
+
+    /**
+     * 移除 [from, to) 范围内的所有键, 耗时与缓存容量有关, 与范围大小无关
+     *
+     * @param from
+     *            范围的起点 (包含)
+     * @param to
+     *            范围的终点 (不包含)
+     */
+    void removeRange(int from, int to) {
+        int slot = head;
+        while (slot != NONE) {
+            int nextSlot = next[slot];
+            if (keys[slot] >= from && keys[slot] < to) {
+                removeSlot(slot);
+            }
+            slot = nextSlot;
+        }
+    }
+
+    /**
+     * 平移键, 所有不小于 from 的键加上 delta, 用于条目插入或者移除之后更新索引
+     * 调用者需要保证平移之后的键不会重复, 例如 移除条目时先移除被删除范围内的键
+     *
+     * @param from
+     *            需要平移的最小的键
+     * @param delta
+     *            平移的距离
+     */
+    void shiftKeys(int from, int delta) {
+        if (delta == 0 || size == 0) {
+            return;
+        }
+        //键改变之后所在的桶也改变, 重新建立所有哈希桶
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = NONE;
+        }
+        for (int slot = head; slot != NONE; slot = next[slot]) {
+            if (keys[slot] >= from) {
+                keys[slot] += delta;
+            }
+            int bucket = bucketOf(keys[slot]);
+            bucketNext[slot] = buckets[bucket];
+            buckets[bucket] = slot;
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    void clear() {
+        while (head != NONE) {
+            removeSlot(head);
+        }
+        resetSlots();
+    }
+
+    /**
+     * 条目离开缓存时回调 (被淘汰, 被移除, 被替换 或者 缓存被清空)
+     * 子类可以在这里回收值占用的资源
+     *
+     * @param key
+     *            键
+     * @param value
+     *            离开缓存的值
+     */
+    protected void entryRemoved(int key, V value) {
+    }
+
+    /**
+     * 重置所有位置为空闲状态
+     */
+    private void resetSlots() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = NONE;
+        }
+        for (int i = 0; i < capacity; i++) {
+            next[i] = i + 1 < capacity ? i + 1 : NONE;
+        }
+        freeHead = 0;
+        head = tail = NONE;
+        size = 0;
+    }
+
+    /**
+     * 计算键所在的哈希桶
+     */
+    private int bucketOf(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * 查找键所在的位置
+     *
+     * @return 位置, 没有找到返回 NONE
+     */
+    private int findSlot(int key) {
+        int slot = buckets[bucketOf(key)];
+        while (slot != NONE && keys[slot] != key) {
+            slot = bucketNext[slot];
+        }
+        return slot;
+    }
+
+    /**
+     * 移除一个位置上的条目, 并将该位置放回空闲链表
+     */
+    @SuppressWarnings("unchecked")
+    private void removeSlot(int slot) {
+        int key = keys[slot];
+        V value = (V) values[slot];
+
+        //从哈希桶中摘除
+        int bucket = bucketOf(key);
+        if (buckets[bucket] == slot) {
+            buckets[bucket] = bucketNext[slot];
+        } else {
+            int s = buckets[bucket];
+            while (bucketNext[s] != slot) {
+                s = bucketNext[s];
+            }
+            bucketNext[s] = bucketNext[slot];
+        }
+
+        unlink(slot);
+        values[slot] = null;
+        next[slot] = freeHead;
+        freeHead = slot;
+        size--;
+
+        entryRemoved(key, value);
+    }
+
+    /**
+     * 将位置移动到使用链表的头部
+     */
+    private void moveToHead(int slot) {
+        if (slot != head) {
+            unlink(slot);
+            linkHead(slot);
+        }
+    }
+
+    /**
+     * 将位置插入到使用链表的头部
+     */
+    private void linkHead(int slot) {
+        prev[slot] = NONE;
+        next[slot] = head;
+        if (head != NONE) {
+            prev[head] = slot;
+        }
+        head = slot;
+        if (tail == NONE) {
+            tail = slot;
+        }
+    }
+
+    /**
+     * 将位置从使用链表中摘除
+     */
+    private void unlink(int slot) {
+        int p = prev[slot];
+        int n = next[slot];
+        if (p != NONE) {
+            next[p] = n;
+        } else {
+            head = n;
+        }
+        if (n != NONE) {
+            prev[n] = p;
+        } else {
+            tail = p;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * 条目是整数的 WheelView 适配器接口
+ * 可以直接获取条目对应的数值, 不需要创建和解析字符串
+ */
+public interface IntWheelAdapter extends WheelAdapter {
+    /**
+     * 根据索引位置获取条目的数值
+     * 
+     * @param index
+     *            条目的索引
+     * @return 
+     * 		条目对应的数值
+     */
+    public int getItemValue(int index);
+
+    /**
+     * 获取数值所在的条目索引
+     * 
+     * @param value
+     *            数值
+     * @return 
+     * 		条目的索引, 如果没有该数值返回 -1
+     */
+    public int getValueIndex(int value);
+}
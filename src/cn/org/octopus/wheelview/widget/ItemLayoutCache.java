@@ -0,0 +1,238 @@
+package cn.org.octopus.wheelview.widget;
+
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+/**
+ * 普通条目的布局缓存
+ * -- 以适配器中的条目索引为键, 为每个条目单独创建一个单行的 StaticLayout
+ * -- 使用 LRU 策略淘汰, 容量一般为几屏的条目数, 滚动时只需要为新出现的条目创建布局
+ * -- 布局宽度 或者 对齐方式改变时, 已经缓存的布局全部失效
+ * -- 可以附加一个条目位图图集, 图集中的条目与布局一起失效
+ * -- 已经缓存的布局失效时版本号加一, 持有布局的窗口据此判断是否需要重新获取
+ */
+class ItemLayoutCache {
+
+    /** 缓存的条目布局 */
+    private final IntLruCache<StaticLayout> layouts;
+
+    /** 绘制条目的画笔 */
+    private final TextPaint paint;
+    /** 每行额外增加的高度 */
+    private final float spacingAdd;
+
+    /** 布局宽度, -1 表示还没有设置 */
+    private int width = -1;
+    /** 布局的对齐方式 */
+    private Layout.Alignment alignment;
+
+    /** 条目位图图集, 为 null 时不使用 */
+    private RowBitmapAtlas rowAtlas;
+
+    /** 版本号, 已经缓存的布局失效时加一, LRU 淘汰不改变版本号 */
+    private int version;
+
+    /**
+     * 构造方法
+     *
+     * @param capacity
+     *            最多缓存的条目布局个数
+     * @param paint
+     *            绘制条目的画笔
+     * @param spacingAdd
+     *            每行额外增加的高度
+     */
+    ItemLayoutCache(int capacity, TextPaint paint, float spacingAdd) {
+        this.layouts = new IntLruCache<StaticLayout>(capacity);
+        this.paint = paint;
+        this.spacingAdd = spacingAdd;
+    }
+
+    /**
+     * 获取缓存容量
+     *
+     * @return 最多缓存的条目布局个数
+     */
+    int getCapacity() {
+        return layouts.capacity();
+    }
+
+    /**
+     * 设置布局的宽度和对齐方式, 如果与之前的设置不同, 清空已经缓存的布局
+     *
+     * @param width
+     *            布局宽度
+     * @param alignment
+     *            对齐方式
+     */
+    void setup(int width, Layout.Alignment alignment) {
+        if (this.width != width || this.alignment != alignment) {
+            clear();
+            this.width = width;
+            this.alignment = alignment;
+        }
+    }
+
+    /**
+     * 获取布局宽度
+     *
+     * @return 布局宽度, 还没有设置返回 -1
+     */
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * 获取布局的对齐方式
+     *
+     * @return 对齐方式, 还没有设置返回 null
+     */
+    Layout.Alignment getAlignment() {
+        return alignment;
+    }
+
+    /**
+     * 设置条目位图图集, 之前的图集被释放
+     *
+     * @param rowAtlas
+     *            条目位图图集, 为 null 时不使用图集
+     */
+    void setRowAtlas(RowBitmapAtlas rowAtlas) {
+        if (this.rowAtlas != null && this.rowAtlas != rowAtlas) {
+            this.rowAtlas.recycle();
+        }
+        this.rowAtlas = rowAtlas;
+    }
+
+    /**
+     * 获取条目位图图集
+     *
+     * @return 条目位图图集, 没有使用图集返回 null
+     */
+    RowBitmapAtlas getRowAtlas() {
+        return rowAtlas;
+    }
+
+    /**
+     * 获取版本号
+     *
+     * @return 版本号, 清空缓存 或者 条目改变, 插入, 移除 之后改变
+     */
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取条目的布局
+     *
+     * @param index
+     *            适配器中的条目索引
+     * @return 缓存的布局, 没有缓存返回 null
+     */
+    StaticLayout get(int index) {
+        return layouts.get(index);
+    }
+
+    /**
+     * 为条目创建布局并缓存
+     *
+     * @param index
+     *            适配器中的条目索引
+     * @param text
+     *            条目显示的字符串
+     * @return 创建的布局
+     */
+    StaticLayout put(int index, CharSequence text) {
+        StaticLayout layout = new StaticLayout(text, paint, width, alignment, 1, spacingAdd, false);
+        layouts.put(index, layout);
+        return layout;
+    }
+
+    /**
+     * 缓存一个已经创建好的条目布局, 布局的宽度和对齐方式需要与当前设置相同
+     *
+     * @param index
+     *            适配器中的条目索引
+     * @param layout
+     *            条目布局
+     */
+    void put(int index, StaticLayout layout) {
+        layouts.put(index, layout);
+    }
+
+    /**
+     * 移除一个条目的布局
+     *
+     * @param index
+     *            适配器中的条目索引
+     */
+    void remove(int index) {
+        version++;
+        layouts.remove(index);
+        if (rowAtlas != null) {
+            rowAtlas.remove(index);
+        }
+    }
+
+    /**
+     * 适配器中一段条目的内容改变了, 移除这些条目的布局
+     *
+     * @param start
+     *            第一个改变的条目索引
+     * @param count
+     *            改变的条目个数
+     */
+    void onItemsChanged(int start, int count) {
+        version++;
+        layouts.removeRange(start, start + count);
+        if (rowAtlas != null) {
+            rowAtlas.removeRange(start, start + count);
+        }
+    }
+
+    /**
+     * 适配器插入了条目, 之后的条目布局向后平移
+     *
+     * @param start
+     *            第一个插入的条目索引
+     * @param count
+     *            插入的条目个数
+     */
+    void onItemsInserted(int start, int count) {
+        version++;
+        layouts.shiftKeys(start, count);
+        if (rowAtlas != null) {
+            rowAtlas.shiftIndices(start, count);
+        }
+    }
+
+    /**
+     * 适配器移除了条目, 移除这些条目的布局, 之后的条目布局向前平移
+     *
+     * @param start
+     *            第一个移除的条目索引
+     * @param count
+     *            移除的条目个数
+     */
+    void onItemsRemoved(int start, int count) {
+        version++;
+        layouts.removeRange(start, start + count);
+        layouts.shiftKeys(start + count, -count);
+        if (rowAtlas != null) {
+            rowAtlas.removeRange(start, start + count);
+            rowAtlas.shiftIndices(start + count, -count);
+        }
+    }
+
+    /**
+     * 清空所有缓存的布局
+     */
+    void clear() {
+        version++;
+        layouts.clear();
+        if (rowAtlas != null) {
+            rowAtlas.clear();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package cn.org.octopus.wheelview.widget;
+
+import android.text.Layout;
+import android.text.TextPaint;
+
+/**
+ * 条目宽度索引
+ * -- 使用真实的画笔测量条目的像素宽度, 每个条目只测量一次
+ * -- 条目数不多时测量所有条目, 使用线段树保存, 更新一个条目 O(log n), 查询最大宽度 O(1)
+ * -- 条目数很多时只记录测量过的条目中的最大宽度, 内存占用与条目个数无关
+ * -- 适配器插入或者移除条目时, 只测量新插入的条目, 其余条目的宽度直接平移
+ */
+class ItemWidthIndex {
+
+    /** 完整索引的最大条目数, 超过该值只记录测量过的条目 */
+    static final int MAX_INDEXED_ITEMS = 2048;
+
+    /** 测量条目使用的画笔 */
+    private final TextPaint paint;
+
+    /** 条目个数 */
+    private int count;
+    /** 线段树, 叶子节点从 count 开始, 节点 1 是所有条目的最大宽度; 不完整索引时为 null */
+    private float[] tree;
+    /** 不完整索引时, 测量过的条目中的最大宽度 */
+    private float measuredMax;
+
+    /**
+     * 构造方法
+     *
+     * @param paint
+     *            测量条目使用的画笔
+     */
+    ItemWidthIndex(TextPaint paint) {
+        this.paint = paint;
+    }
+
+    /**
+     * 根据适配器重新建立索引
+     *
+     * @param adapter
+     *            适配器
+     * @param measureAll
+     *            是否测量所有条目, 条目数超过 MAX_INDEXED_ITEMS 时忽略该参数
+     */
+    void build(WheelAdapter adapter, boolean measureAll) {
+        count = adapter.getItemsCount();
+        measuredMax = 0;
+        if (measureAll && count <= MAX_INDEXED_ITEMS) {
+            tree = new float[count * 2];
+            for (int i = 0; i < count; i++) {
+                tree[count + i] = measureText(adapter.getItem(i));
+            }
+            rebuildNodes();
+        } else {
+            tree = null;
+        }
+    }
+
+    /**
+     * 获取建立索引时的条目个数
+     *
+     * @return 条目个数
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * 是否测量了所有条目
+     *
+     * @return 完整索引返回 true
+     */
+    boolean isComplete() {
+        return tree != null;
+    }
+
+    /**
+     * 测量一个条目, 条目的内容改变时调用
+     *
+     * @param index
+     *            条目索引
+     * @param text
+     *            条目的新内容
+     * @return 最大宽度是否改变了
+     */
+    boolean measure(int index, CharSequence text) {
+        float oldMax = getMaxWidth();
+        float width = measureText(text);
+        if (tree != null) {
+            if (index < 0 || index >= count) {
+                return false;
+            }
+            int node = count + index;
+            tree[node] = width;
+            for (node >>= 1; node > 0; node >>= 1) {
+                tree[node] = Math.max(tree[node * 2], tree[node * 2 + 1]);
+            }
+        } else {
+            measuredMax = Math.max(measuredMax, width);
+        }
+        return getMaxWidth() != oldMax;
+    }
+
+    /**
+     * 适配器中一段条目的内容改变了, 重新测量这些条目
+     * 不完整索引只在改变的条目不多时测量 (例如 异步加载的一页), 否则等这些条目显示时再测量
+     *
+     * @param adapter
+     *            适配器
+     * @param start
+     *            第一个改变的条目索引
+     * @param count
+     *            改变的条目个数
+     * @return 最大宽度是否改变了
+     */
+    boolean onItemsChanged(WheelAdapter adapter, int start, int count) {
+        float oldMax = getMaxWidth();
+        if (tree == null) {
+            if (count <= MAX_INDEXED_ITEMS) {
+                for (int i = start; i < start + count; i++) {
+                    measuredMax = Math.max(measuredMax, measureText(adapter.getItem(i)));
+                }
+            }
+            return getMaxWidth() != oldMax;
+        }
+        int end = Math.min(start + count, this.count);
+        for (int i = Math.max(start, 0); i < end; i++) {
+            tree[this.count + i] = measureText(adapter.getItem(i));
+        }
+        rebuildNodes();
+        return getMaxWidth() != oldMax;
+    }
+
+    /**
+     * 适配器插入了条目, 完整索引时测量插入的条目, 插入之后超过 MAX_INDEXED_ITEMS 时转为不完整索引
+     *
+     * @param adapter
+     *            插入之后的适配器
+     * @param start
+     *            第一个插入的条目索引
+     * @param count
+     *            插入的条目个数
+     * @return 最大宽度是否改变了
+     */
+    boolean onItemsInserted(WheelAdapter adapter, int start, int count) {
+        float oldMax = getMaxWidth();
+        int newCount = this.count + count;
+        if (tree != null && newCount <= MAX_INDEXED_ITEMS) {
+            float[] newTree = new float[newCount * 2];
+            System.arraycopy(tree, this.count, newTree, newCount, start);
+            for (int i = start; i < start + count; i++) {
+                newTree[newCount + i] = measureText(adapter.getItem(i));
+            }
+            System.arraycopy(tree, this.count + start, newTree, newCount + start + count, this.count - start);
+            tree = newTree;
+            this.count = newCount;
+            rebuildNodes();
+        } else {
+            if (tree != null) {
+                measuredMax = oldMax;
+                tree = null;
+            }
+            this.count = newCount;
+        }
+        return getMaxWidth() != oldMax;
+    }
+
+    /**
+     * 适配器移除了条目, 完整索引时最大宽度可能变小, 不完整索引的最大宽度不变
+     *
+     * @param start
+     *            第一个移除的条目索引
+     * @param count
+     *            移除的条目个数
+     * @return 最大宽度是否改变了
+     */
+    boolean onItemsRemoved(int start, int count) {
+        float oldMax = getMaxWidth();
+        int newCount = Math.max(this.count - count, 0);
+        if (tree != null) {
+            float[] newTree = new float[newCount * 2];
+            System.arraycopy(tree, this.count, newTree, newCount, start);
+            System.arraycopy(tree, this.count + start + count, newTree, newCount + start, newCount - start);
+            tree = newTree;
+            this.count = newCount;
+            rebuildNodes();
+        } else {
+            this.count = newCount;
+        }
+        return getMaxWidth() != oldMax;
+    }
+
+    /**
+     * 根据叶子节点重新计算所有内部节点
+     */
+    private void rebuildNodes() {
+        for (int i = count - 1; i > 0; i--) {
+            tree[i] = Math.max(tree[i * 2], tree[i * 2 + 1]);
+        }
+    }
+
+    /**
+     * 获取最大的条目宽度
+     *
+     * @return 最大宽度, 单位像素
+     */
+    float getMaxWidth() {
+        if (tree != null) {
+            return count > 0 ? tree[1] : 0;
+        }
+        return measuredMax;
+    }
+
+    /**
+     * 根据最大字符个数估算条目宽度, 使用字符 "0" 的宽度乘以字符个数
+     *
+     * @param maxLength
+     *            最大字符个数
+     * @param paint
+     *            测量使用的画笔
+     * @return 估算的宽度, 单位像素
+     */
+    static int getCharsWidth(int maxLength, TextPaint paint) {
+    	/*
+    	 * 使用方法 FloatMath.ceil() 方法有以下警告
+    	 * Use java.lang.Math#ceil instead of android.util.FloatMath#ceil() since it is faster as of API 8
+    	 */
+        //向上取整  计算一个字符串宽度
+        float textWidth = (float) Math.ceil(Layout.getDesiredWidth("0", paint));
+        //获取字符串总的宽度
+        return (int) (maxLength * textWidth);
+    }
+
+    /**
+     * 测量字符串的宽度
+     */
+    private float measureText(CharSequence text) {
+        return text != null ? Layout.getDesiredWidth(text, paint) : 0;
+    }
+}
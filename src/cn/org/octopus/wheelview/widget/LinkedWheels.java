@@ -0,0 +1,425 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.util.SparseArray;
+
+/**
+ * 级联的多个 WheelView, 例如 省 / 市 / 区 选择器
+ * -- 每一级 WheelView 的适配器由上一级的选中条目决定
+ * -- 每个上级条目对应的下级适配器 和 下级选中的条目都会被保存, 来回切换上级条目时不需要重新创建适配器
+ * -- 下级 WheelView 为适配器创建的条目布局只保存最近使用的几个, 切换回这些上级条目时不需要重新测量
+ * -- 上级 WheelView 滚动过程中不刷新下级, 等上级停止滚动之后再刷新
+ * -- 所有级别都停止之后回调组合的选中结果
+ */
+public class LinkedWheels {
+
+    /** 第一次显示某个上级条目的下级时, 下级选中第一个条目 */
+    public static final int SELECT_FIRST = 0;
+    /** 第一次显示某个上级条目的下级时, 下级选中中间的条目 */
+    public static final int SELECT_MIDDLE = 1;
+
+    /** 每一个下级 WheelView 最多保存的布局状态个数 */
+    private static final int MAX_LAYOUT_STATES_PER_LEVEL = 4;
+
+    /**
+     * 级联数据源
+     */
+    public interface DataSource {
+        /**
+         * 获取某一级的适配器
+         *
+         * @param level
+         *            级别, 从 0 开始
+         * @param path
+         *            前面各级选中的条目索引, 只使用前 level 个元素
+         * @return
+         * 		该级的适配器
+         */
+        WheelAdapter getAdapter(int level, int[] path);
+    }
+
+    /**
+     * 选中结果改变监听器
+     */
+    public interface OnSelectionChangedListener {
+        /**
+         * 所有级别停止滚动, 选中结果改变之后回调
+         *
+         * @param wheels
+         *            级联的 WheelView
+         * @param selection
+         *            每一级选中的条目索引
+         */
+        void onSelectionChanged(LinkedWheels wheels, int[] selection);
+    }
+
+    /**
+     * 缓存节点, 保存某个上级条目对应的下级适配器 和 下级选中的条目
+     * 布局状态占用的内存较多, 不保存在节点中, 以节点编号为键保存在 layoutStates 中
+     */
+    private static class Node {
+        /** 节点编号, 在一个 LinkedWheels 中唯一 */
+        final int id;
+        /** 该节点的下级适配器, 第一次显示时创建 */
+        WheelAdapter adapter;
+        /** 下级 WheelView 在该节点上最后选中的条目 */
+        int selectedItem;
+        /** 各个条目对应的子节点 */
+        SparseArray<Node> children;
+
+        Node(int id) {
+            this.id = id;
+        }
+    }
+
+    /** 数据源 */
+    private final DataSource dataSource;
+    /** 每一级的 WheelView */
+    private final WheelView[] wheels;
+    /** 每一级当前使用的缓存节点 */
+    private final Node[] nodes;
+    /** 每一级是否正在滚动 */
+    private final boolean[] scrolling;
+    /** 每一级是否有等待停止滚动之后刷新的下级 */
+    private final boolean[] pendingRefresh;
+
+    /** 当前的选中路径 */
+    private final int[] path;
+
+    /** 选中结果改变监听器集合 */
+    private final List<OnSelectionChangedListener> listeners = new ArrayList<OnSelectionChangedListener>();
+
+    /**
+     * 最近离开的节点的布局状态, 以节点编号为键
+     * 节点只属于一级, 所有级别共用一个缓存, 恢复时不会恢复到其它级别的 WheelView 中
+     */
+    private final IntLruCache<WheelLayoutState> layoutStates;
+    /** 下一个节点的编号 */
+    private int nextNodeId;
+
+    /** 第一次显示某个上级条目的下级时的选中方式 */
+    private int initialSelection = SELECT_FIRST;
+
+    /** 正在刷新下级, 忽略刷新过程中的条目改变回调 */
+    private boolean refreshing;
+
+    /**
+     * 构造方法, 为每一级 WheelView 设置适配器和监听器
+     *
+     * @param dataSource
+     *            级联数据源
+     * @param wheels
+     *            从上到下每一级的 WheelView
+     */
+    public LinkedWheels(DataSource dataSource, WheelView... wheels) {
+        if (wheels.length == 0) {
+            throw new IllegalArgumentException("no wheels");
+        }
+        this.dataSource = dataSource;
+        this.wheels = wheels;
+        nodes = new Node[wheels.length];
+        scrolling = new boolean[wheels.length];
+        pendingRefresh = new boolean[wheels.length];
+        path = new int[wheels.length];
+        layoutStates = new IntLruCache<WheelLayoutState>(
+                MAX_LAYOUT_STATES_PER_LEVEL * Math.max(wheels.length - 1, 1));
+
+        for (int level = 0; level < wheels.length; level++) {
+            final int wheelLevel = level;
+            wheels[level].addChangingListener(new OnWheelChangedListener() {
+                @Override
+                public void onChanged(WheelView wheel, int oldValue, int newValue) {
+                    onLevelChanged(wheelLevel, newValue);
+                }
+            });
+            wheels[level].addScrollingListener(new OnWheelScrollListener() {
+                @Override
+                public void onScrollingStarted(WheelView wheel) {
+                    scrolling[wheelLevel] = true;
+                }
+
+                @Override
+                public void onScrollingFinished(WheelView wheel) {
+                    scrolling[wheelLevel] = false;
+                    onLevelSettled(wheelLevel);
+                }
+            });
+        }
+
+        //设置第一级适配器, 并依次刷新下级
+        Node root = new Node(nextNodeId++);
+        root.adapter = dataSource.getAdapter(0, path);
+        nodes[0] = root;
+        refreshing = true;
+        wheels[0].setAdapter(root.adapter);
+        wheels[0].setCurrentItem(0);
+        refreshing = false;
+        path[0] = wheels[0].getCurrentItem();
+        refreshChildren(0);
+    }
+
+    /**
+     * 添加选中结果改变监听器
+     *
+     * @param listener
+     *            the listener
+     */
+    public void addOnSelectionChangedListener(OnSelectionChangedListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 移除选中结果改变监听器
+     *
+     * @param listener
+     *            the listener
+     */
+    public void removeOnSelectionChangedListener(OnSelectionChangedListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 设置第一次显示某个上级条目的下级时, 下级选中的条目
+     * 只影响之后第一次显示的上级条目, 已经显示过的上级条目恢复最后选中的下级条目
+     *
+     * @param initialSelection
+     *            SELECT_FIRST 或 SELECT_MIDDLE
+     */
+    public void setInitialSelection(int initialSelection) {
+        if (initialSelection != SELECT_FIRST && initialSelection != SELECT_MIDDLE) {
+            throw new IllegalArgumentException("initialSelection = " + initialSelection);
+        }
+        this.initialSelection = initialSelection;
+    }
+
+    /**
+     * 获取级数
+     *
+     * @return
+     * 		级联的 WheelView 个数
+     */
+    public int getLevelCount() {
+        return wheels.length;
+    }
+
+    /**
+     * 获取每一级选中的条目索引
+     *
+     * @return
+     * 		选中的条目索引, 返回的是副本
+     */
+    public int[] getSelection() {
+        return path.clone();
+    }
+
+    /**
+     * 获取每一级选中的条目字符串
+     *
+     * @return
+     * 		选中的条目字符串
+     */
+    public String[] getSelectedItems() {
+        String[] items = new String[wheels.length];
+        for (int level = 0; level < wheels.length; level++) {
+            WheelAdapter adapter = nodes[level] != null ? nodes[level].adapter : null;
+            items[level] = adapter != null ? adapter.getItem(path[level]) : null;
+        }
+        return items;
+    }
+
+    /**
+     * 某一级的选中条目改变
+     * 上级正在滚动时只记录, 等停止滚动之后再刷新下级
+     */
+    private void onLevelChanged(int level, int newValue) {
+        if (refreshing) {
+            return;
+        }
+        path[level] = newValue;
+        if (nodes[level] != null) {
+            nodes[level].selectedItem = newValue;
+        }
+        if (scrolling[level]) {
+            pendingRefresh[level] = true;
+        } else {
+            refreshChildren(level);
+            notifySelectionChanged();
+        }
+    }
+
+    /**
+     * 某一级停止滚动, 刷新等待中的下级
+     */
+    private void onLevelSettled(int level) {
+        if (pendingRefresh[level]) {
+            pendingRefresh[level] = false;
+            refreshChildren(level);
+        }
+        notifySelectionChanged();
+    }
+
+    /**
+     * 根据 level 级的选中条目, 刷新它之后的所有级别
+     */
+    private void refreshChildren(int level) {
+        refreshing = true;
+        for (int child = level + 1; child < wheels.length; child++) {
+            WheelView wheel = wheels[child];
+            Node node = childNode(nodes[child - 1], path[child - 1]);
+            if (node == nodes[child]) {
+                continue;
+            }
+
+            //保存之前节点的布局状态, 切换回来时恢复, 超出容量时淘汰最久没有使用的
+            if (nodes[child] != null) {
+                layoutStates.put(nodes[child].id, wheel.detachLayoutState());
+            }
+            if (node.adapter == null) {
+                node.adapter = dataSource.getAdapter(child, path);
+                if (initialSelection == SELECT_MIDDLE) {
+                    node.selectedItem = node.adapter.getItemsCount() / 2;
+                }
+            }
+            wheel.setAdapter(node.adapter, layoutStates.remove(node.id));
+            nodes[child] = node;
+
+            wheel.setCurrentItem(node.selectedItem);
+            path[child] = wheel.getCurrentItem();
+        }
+        refreshing = false;
+    }
+
+    /**
+     * 获取 parent 节点中 index 条目对应的子节点, 没有时创建
+     */
+    private Node childNode(Node parent, int index) {
+        if (parent.children == null) {
+            parent.children = new SparseArray<Node>();
+        }
+        Node node = parent.children.get(index);
+        if (node == null) {
+            node = new Node(nextNodeId++);
+            parent.children.put(index, node);
+        }
+        return node;
+    }
+
+    /**
+     * 所有级别都停止滚动时回调选中结果改变监听器
+     */
+    private void notifySelectionChanged() {
+        for (int level = 0; level < wheels.length; level++) {
+            if (scrolling[level]) {
+                return;
+            }
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onSelectionChanged(this, getSelection());
+        }
+    }
+
+    /**
+     * 使用数组创建两级数据源
+     *
+     * @param parents
+     *            第一级的条目
+     * @param children
+     *            每个第一级条目对应的第二级条目
+     * @return
+     * 		级联数据源
+     */
+    public static DataSource fromArrays(final String[] parents, final String[][] children) {
+        return new DataSource() {
+            @Override
+            public WheelAdapter getAdapter(int level, int[] path) {
+                if (level == 0) {
+                    return new ArrayWheelAdapter<String>(parents);
+                }
+                return new ArrayWheelAdapter<String>(children[path[0]]);
+            }
+        };
+    }
+
+    /**
+     * 使用数组创建三级数据源
+     *
+     * @param parents
+     *            第一级的条目
+     * @param children
+     *            每个第一级条目对应的第二级条目
+     * @param grandChildren
+     *            每个第二级条目对应的第三级条目
+     * @return
+     * 		级联数据源
+     */
+    public static DataSource fromArrays(final String[] parents, final String[][] children,
+            final String[][][] grandChildren) {
+        return new DataSource() {
+            @Override
+            public WheelAdapter getAdapter(int level, int[] path) {
+                if (level == 0) {
+                    return new ArrayWheelAdapter<String>(parents);
+                } else if (level == 1) {
+                    return new ArrayWheelAdapter<String>(children[path[0]]);
+                }
+                return new ArrayWheelAdapter<String>(grandChildren[path[0]][path[1]]);
+            }
+        };
+    }
+
+    /**
+     * 使用字符串池创建两级数据源
+     * 数据保存在共享的字符串池中, 多个选择器可以使用同一个数据源, 每次只创建包装编号数组的适配器
+     *
+     * @param pool
+     *            字符串池
+     * @param parents
+     *            第一级条目的字符串编号
+     * @param children
+     *            每个第一级条目对应的第二级条目的字符串编号
+     * @return
+     * 		级联数据源
+     */
+    public static DataSource fromPool(final WheelStringPool pool, final int[] parents, final int[][] children) {
+        return new DataSource() {
+            @Override
+            public WheelAdapter getAdapter(int level, int[] path) {
+                if (level == 0) {
+                    return new StringPoolWheelAdapter(pool, parents);
+                }
+                return new StringPoolWheelAdapter(pool, children[path[0]]);
+            }
+        };
+    }
+
+    /**
+     * 使用字符串池创建三级数据源
+     *
+     * @param pool
+     *            字符串池
+     * @param parents
+     *            第一级条目的字符串编号
+     * @param children
+     *            每个第一级条目对应的第二级条目的字符串编号
+     * @param grandChildren
+     *            每个第二级条目对应的第三级条目的字符串编号
+     * @return
+     * 		级联数据源
+     */
+    public static DataSource fromPool(final WheelStringPool pool, final int[] parents, final int[][] children,
+            final int[][][] grandChildren) {
+        return new DataSource() {
+            @Override
+            public WheelAdapter getAdapter(int level, int[] path) {
+                if (level == 0) {
+                    return new StringPoolWheelAdapter(pool, parents);
+                } else if (level == 1) {
+                    return new StringPoolWheelAdapter(pool, children[path[0]]);
+                }
+                return new StringPoolWheelAdapter(pool, grandChildren[path[0]][path[1]]);
+            }
+        };
+    }
+}
@@ -0,0 +1,188 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 使用 List 作为数据源的可观察适配器
+ * -- 修改数据的方法会通知 WheelView 只更新改变的条目, 选中的条目和滚动位置保持不变
+ * -- setItems 比较新旧数据的相同前缀和后缀, 只通知中间改变的部分,
+ *    适合定时刷新的数据, 例如 可预约的时间段
+ * -- 所有方法只能在 UI 线程中调用
+ *
+ * @param <T>
+ *            元素类型
+ */
+public class ListWheelAdapter<T> extends BaseObservableWheelAdapter {
+
+    /** 适配器的数据源 */
+    private final List<T> items;
+
+    /**
+     * 构造方法, 创建空的适配器
+     */
+    public ListWheelAdapter() {
+        items = new ArrayList<T>();
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param items
+     *            初始数据, 会复制一份
+     */
+    public ListWheelAdapter(Collection<? extends T> items) {
+        this.items = new ArrayList<T>(items);
+    }
+
+    @Override
+    public int getItemsCount() {
+        return items.size();
+    }
+
+    @Override
+    public String getItem(int index) {
+        if (index >= 0 && index < items.size()) {
+            T item = items.get(index);
+            return item != null ? item.toString() : null;
+        }
+        return null;
+    }
+
+    /**
+     * 获取元素
+     *
+     * @param index
+     *            条目索引
+     * @return 元素
+     */
+    public T getItemValue(int index) {
+        return items.get(index);
+    }
+
+    /**
+     * 替换一个元素
+     *
+     * @param index
+     *            条目索引
+     * @param item
+     *            新的元素
+     */
+    public void set(int index, T item) {
+        items.set(index, item);
+        notifyItemRangeChanged(index, 1);
+    }
+
+    /**
+     * 在末尾添加一个元素
+     *
+     * @param item
+     *            元素
+     */
+    public void add(T item) {
+        add(items.size(), item);
+    }
+
+    /**
+     * 插入一个元素
+     *
+     * @param index
+     *            插入的位置
+     * @param item
+     *            元素
+     */
+    public void add(int index, T item) {
+        items.add(index, item);
+        notifyItemRangeInserted(index, 1);
+    }
+
+    /**
+     * 插入一组元素
+     *
+     * @param index
+     *            插入的位置
+     * @param newItems
+     *            元素集合
+     */
+    public void addAll(int index, Collection<? extends T> newItems) {
+        if (newItems.isEmpty()) {
+            return;
+        }
+        items.addAll(index, newItems);
+        notifyItemRangeInserted(index, newItems.size());
+    }
+
+    /**
+     * 移除一个元素
+     *
+     * @param index
+     *            条目索引
+     * @return 被移除的元素
+     */
+    public T remove(int index) {
+        T item = items.remove(index);
+        notifyItemRangeRemoved(index, 1);
+        return item;
+    }
+
+    /**
+     * 移除一段元素
+     *
+     * @param start
+     *            第一个移除的条目索引
+     * @param count
+     *            移除的个数
+     */
+    public void removeRange(int start, int count) {
+        if (count <= 0) {
+            return;
+        }
+        items.subList(start, start + count).clear();
+        notifyItemRangeRemoved(start, count);
+    }
+
+    /**
+     * 替换所有元素, 只通知与旧数据不同的部分
+     * 相同的前缀和后缀不通知, 中间部分按 改变 + 插入 或者 改变 + 移除 通知
+     *
+     * @param newItems
+     *            新的元素集合
+     */
+    public void setItems(List<? extends T> newItems) {
+        int oldSize = items.size();
+        int newSize = newItems.size();
+
+        //相同的前缀
+        int prefix = 0;
+        int minSize = Math.min(oldSize, newSize);
+        while (prefix < minSize && equal(items.get(prefix), newItems.get(prefix))) {
+            prefix++;
+        }
+        //相同的后缀, 不与前缀重叠
+        int suffix = 0;
+        while (suffix < minSize - prefix
+                && equal(items.get(oldSize - 1 - suffix), newItems.get(newSize - 1 - suffix))) {
+            suffix++;
+        }
+
+        int oldMiddle = oldSize - prefix - suffix;
+        int newMiddle = newSize - prefix - suffix;
+        items.clear();
+        items.addAll(newItems);
+
+        int changed = Math.min(oldMiddle, newMiddle);
+        if (changed > 0) {
+            notifyItemRangeChanged(prefix, changed);
+        }
+        if (newMiddle > oldMiddle) {
+            notifyItemRangeInserted(prefix + changed, newMiddle - oldMiddle);
+        } else if (oldMiddle > newMiddle) {
+            notifyItemRangeRemoved(prefix + changed, oldMiddle - newMiddle);
+        }
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,59 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * 写时复制的监听器集合
+ * -- 添加和移除监听器时创建新的数组, 已经取出的数组不会再改变
+ * -- 回调时取出当前数组按索引遍历, 不创建迭代器;
+ *    回调过程中添加或者移除监听器不影响这一次回调
+ * -- 监听器很少改变, 回调很频繁, 适合滚动过程中的回调
+ *
+ * @param <T>
+ *            监听器类型
+ */
+final class ListenerList<T> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    /** 当前的监听器数组, 不会被修改 */
+    private Object[] listeners = EMPTY;
+
+    /**
+     * 添加监听器
+     *
+     * @param listener
+     *            the listener
+     */
+    void add(T listener) {
+        Object[] newListeners = new Object[listeners.length + 1];
+        System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+        newListeners[listeners.length] = listener;
+        listeners = newListeners;
+    }
+
+    /**
+     * 移除监听器, 同一个监听器添加了多次时只移除第一个
+     *
+     * @param listener
+     *            the listener
+     */
+    void remove(T listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i].equals(listener)) {
+                Object[] newListeners = new Object[listeners.length - 1];
+                System.arraycopy(listeners, 0, newListeners, 0, i);
+                System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+                listeners = newListeners.length > 0 ? newListeners : EMPTY;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 获取当前的监听器数组, 回调时使用, 数组不能修改
+     *
+     * @return 监听器数组
+     */
+    Object[] array() {
+        return listeners;
+    }
+}
@@ -0,0 +1,119 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * 显示 long 数值区间的 WheelAdapter
+ * -- 条目的值 = 起始值 + 索引 * 步长, 例如 毫秒时间戳, 序列号
+ * -- 条目在获取时才计算和格式化, 不保存任何条目, 占用的内存与条目个数无关
+ */
+public class LongRangeWheelAdapter implements WheelAdapter {
+
+    /** 起始值 */
+    private final long startValue;
+    /** 相邻两个条目之间的步长 */
+    private final long step;
+    /** 条目个数 */
+    private final int count;
+
+    /** 格式化字符串, 为 null 时直接显示数字 */
+    private final String format;
+
+    /**
+     * 构造方法
+     * 
+     * @param startValue
+     *            起始值
+     * @param step
+     *            步长, 不能为 0
+     * @param count
+     *            条目个数
+     */
+    public LongRangeWheelAdapter(long startValue, long step, int count) {
+        this(startValue, step, count, null);
+    }
+
+    /**
+     * 构造方法
+     * 
+     * @param startValue
+     *            起始值
+     * @param step
+     *            步长, 不能为 0
+     * @param count
+     *            条目个数
+     * @param format
+     *            格式化字符串
+     */
+    public LongRangeWheelAdapter(long startValue, long step, int count, String format) {
+        if (step == 0) {
+            throw new IllegalArgumentException("step == 0");
+        }
+        this.startValue = startValue;
+        this.step = step;
+        this.count = Math.max(count, 0);
+        this.format = format;
+    }
+
+    /**
+     * 获取条目对应的数值
+     * 
+     * @param index
+     *            条目索引
+     * @return 
+     * 		条目的数值
+     */
+    public long getItemValue(int index) {
+        return startValue + index * step;
+    }
+
+    /**
+     * 获取数值所在的条目索引, 不在步长上的数值返回它之前最近的条目
+     * 
+     * @param value
+     *            数值
+     * @return 
+     * 		条目的索引, 如果不在区间内返回 -1
+     */
+    public int getValueIndex(long value) {
+        //起始值之前的数值与 step 异号, 整数除法向 0 取整会得到 0, 需要先排除
+        if (step > 0 ? value < startValue : value > startValue) {
+            return -1;
+        }
+        long index = (value - startValue) / step;
+        //index < 0: 两个数值相差超过 long 的范围
+        if (index < 0 || index >= count) {
+            return -1;
+        }
+        return (int) index;
+    }
+
+    @Override
+    public String getItem(int index) {
+        if (index >= 0 && index < count) {
+            long value = getItemValue(index);
+            //如果 format 不为 null, 那么格式化字符串, 如果为 null, 直接返回数字
+            if (format != null) {
+                return String.format(format, value);
+            }
+            return Long.toString(value);
+        }
+        return null;
+    }
+
+    @Override
+    public int getItemsCount() {
+        return count;
+    }
+
+    @Override
+    public int getMaximumLength() {
+        if (count == 0) {
+            return 0;
+        }
+        //没有格式化时, 区间两端的数字中最长的就是最大长度
+        if (format == null) {
+            return Math.max(Long.toString(startValue).length(),
+                    Long.toString(getItemValue(count - 1)).length());
+        }
+        return -1;
+    }
+}
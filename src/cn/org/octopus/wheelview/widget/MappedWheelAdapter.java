@@ -0,0 +1,148 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * 从只读的紧凑格式中读取条目的 WheelAdapter, 适合很大的静态数据 (例如 几十万个邮政编码)
+ * -- 数据由 MappedWheelAdapterWriter 在构建时生成, 格式 (大端序):
+ *    魔数 int, 条目个数 int, 最大字符个数 int, 偏移表 int[条目个数 + 1], UTF-8 数据
+ * -- 通过内存映射文件 或者 ByteBuffer 读取, 条目在获取时才解码, 堆中只保存最近解码的少量条目,
+ *    占用的堆内存与条目个数无关
+ * -- 获取条目是同步的, 可以在后台测量线程中读取
+ */
+public class MappedWheelAdapter implements WheelAdapter {
+
+    /** 数据格式的魔数 "WHL1" */
+    static final int MAGIC = 0x57484C31;
+
+    /** 文件头的长度: 魔数, 条目个数, 最大字符个数 */
+    static final int HEADER_SIZE = 12;
+
+    /** 默认缓存的解码条目数 */
+    private static final int DEFAULT_CACHE_SIZE = 64;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /** 数据 */
+    private final ByteBuffer buffer;
+    /** 批量读取条目数据使用的 buffer 副本, 与 buffer 共享数据, 有自己的读取位置 */
+    private final ByteBuffer reader;
+    /** 条目个数 */
+    private final int count;
+    /** 最大字符个数 */
+    private final int maximumLength;
+    /** UTF-8 数据在 buffer 中的起始位置 */
+    private final int dataStart;
+
+    /** 最近解码的条目 */
+    private final IntLruCache<String> decoded;
+    /** 解码使用的缓冲区, 按最长的条目增长 */
+    private byte[] scratch = new byte[64];
+
+    /**
+     * 构造方法, 使用默认的解码缓存大小
+     * 
+     * @param buffer
+     *            数据, 从当前位置开始, 之后不能再修改
+     */
+    public MappedWheelAdapter(ByteBuffer buffer) {
+        this(buffer, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * 构造方法
+     * 
+     * @param buffer
+     *            数据, 从当前位置开始, 之后不能再修改
+     * @param cacheSize
+     *            缓存的解码条目数, 一般为几屏的条目数
+     */
+    public MappedWheelAdapter(ByteBuffer buffer, int cacheSize) {
+        this.buffer = buffer.slice();
+        if (this.buffer.capacity() < HEADER_SIZE || this.buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("not a wheel adapter data file");
+        }
+        count = this.buffer.getInt(4);
+        maximumLength = this.buffer.getInt(8);
+        //文件头损坏时 (count + 1) * 4 可能超出 int 的范围, 使用 long 计算
+        long tableEnd = HEADER_SIZE + ((long) count + 1) * 4;
+        if (count < 0 || tableEnd > this.buffer.capacity()) {
+            throw new IllegalArgumentException("truncated wheel adapter data");
+        }
+        dataStart = (int) tableEnd;
+        int dataLength = this.buffer.getInt(HEADER_SIZE + count * 4);
+        if (dataLength < 0 || (long) dataStart + dataLength > this.buffer.capacity()) {
+            throw new IllegalArgumentException("truncated wheel adapter data");
+        }
+        reader = this.buffer.duplicate();
+        decoded = new IntLruCache<String>(cacheSize);
+    }
+
+    /**
+     * 以内存映射的方式打开数据文件, 文件在映射期间不能修改
+     * 打包在 apk 中的数据需要 以不压缩的方式打包后复制到文件, 或者读取到 ByteBuffer 中使用构造方法
+     * 
+     * @param file
+     *            MappedWheelAdapterWriter 生成的数据文件
+     * @return 
+     * 		适配器
+     * @throws IOException
+     *             读取文件出错
+     */
+    public static MappedWheelAdapter open(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            //映射建立之后关闭文件不影响映射
+            return new MappedWheelAdapter(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            raf.close();
+        }
+    }
+
+    @Override
+    public synchronized String getItem(int index) {
+        if (index < 0 || index >= count) {
+            return null;
+        }
+        String item = decoded.get(index);
+        if (item == null) {
+            item = decode(index);
+            decoded.put(index, item);
+        }
+        return item;
+    }
+
+    /**
+     * 解码一个条目
+     */
+    private String decode(int index) {
+        int start = buffer.getInt(HEADER_SIZE + index * 4);
+        int end = buffer.getInt(HEADER_SIZE + index * 4 + 4);
+        int length = end - start;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        reader.position(dataStart + start);
+        reader.get(scratch, 0, length);
+        return new String(scratch, 0, length, UTF_8);
+    }
+
+    @Override
+    public int getItemsCount() {
+        return count;
+    }
+
+    /**
+     * 返回生成数据时记录的最大字符个数, WheelView 不需要测量所有条目
+     */
+    @Override
+    public int getMaximumLength() {
+        return maximumLength;
+    }
+}
@@ -0,0 +1,151 @@
+package cn.org.octopus.wheelview.widget;
+
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+/**
+ * 在后台线程中预先测量的条目
+ * -- 包括 条目宽度索引, 当前条目附近的条目布局 和 选中条目布局
+ * -- 创建之后不再修改, 通过 Handler 发送到 UI 线程之后由 WheelView 使用
+ * -- 测量使用画笔的副本, 不会与 UI 线程同时使用同一个画笔
+ */
+final class MeasuredItems {
+
+    /** 测量的适配器 */
+    final WheelAdapter adapter;
+    /** WheelView 设置适配器时的计数, 用于丢弃过期的测量结果 */
+    final int generation;
+
+    /** 条目宽度索引, 适配器给出了最大字符个数时为 null */
+    final ItemWidthIndex widthIndex;
+    /** 条目布局的宽度 */
+    final int layoutWidth;
+    /** 条目布局的对齐方式 */
+    final Layout.Alignment alignment;
+
+    /** 测量的条目索引 */
+    final int[] indices;
+    /** 条目索引对应的布局, 没有条目的位置为 null */
+    final StaticLayout[] layouts;
+
+    /** 选中条目索引 */
+    final int valueIndex;
+    /** 选中条目布局 */
+    final StaticLayout valueLayout;
+
+    private MeasuredItems(WheelAdapter adapter, int generation, ItemWidthIndex widthIndex, int layoutWidth,
+            Layout.Alignment alignment, int[] indices, StaticLayout[] layouts, int valueIndex,
+            StaticLayout valueLayout) {
+        this.adapter = adapter;
+        this.generation = generation;
+        this.widthIndex = widthIndex;
+        this.layoutWidth = layoutWidth;
+        this.alignment = alignment;
+        this.indices = indices;
+        this.layouts = layouts;
+        this.valueIndex = valueIndex;
+        this.valueLayout = valueLayout;
+    }
+
+    /**
+     * 测量条目, 可以在后台线程中执行, 适配器需要支持在后台线程中读取
+     *
+     * @param adapter
+     *            适配器
+     * @param generation
+     *            设置适配器时的计数
+     * @param itemsPaint
+     *            普通条目画笔的副本
+     * @param valuePaint
+     *            选中条目画笔的副本
+     * @param additionalWidth
+     *            条目宽度额外增加的间距
+     * @param spacingAdd
+     *            每行额外增加的高度
+     * @param alignment
+     *            条目的对齐方式
+     * @param indices
+     *            要创建布局的条目索引
+     * @param valueIndex
+     *            选中条目的索引
+     * @return
+     * 		测量结果
+     */
+    static MeasuredItems measure(WheelAdapter adapter, int generation, TextPaint itemsPaint, TextPaint valuePaint,
+            int additionalWidth, float spacingAdd, Layout.Alignment alignment, int[] indices, int valueIndex) {
+        ItemWidthIndex widthIndex = null;
+        int maxWidth;
+        int adapterLength = adapter.getMaximumLength();
+        if (adapterLength > 0) {
+            maxWidth = ItemWidthIndex.getCharsWidth(adapterLength, itemsPaint);
+        } else {
+            widthIndex = new ItemWidthIndex(itemsPaint);
+            widthIndex.build(adapter, true);
+            if (!widthIndex.isComplete()) {
+                for (int i = 0; i < indices.length; i++) {
+                    widthIndex.measure(indices[i], adapter.getItem(indices[i]));
+                }
+            }
+            maxWidth = (int) Math.ceil(widthIndex.getMaxWidth());
+        }
+
+        //与 WheelView 自适应宽度时的计算方式相同
+        int layoutWidth = maxWidth + additionalWidth;
+
+        StaticLayout[] layouts = new StaticLayout[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            String text = adapter.getItem(indices[i]);
+            if (text != null) {
+                layouts[i] = new StaticLayout(text, itemsPaint, layoutWidth, alignment, 1, spacingAdd, false);
+            }
+        }
+
+        String value = adapter.getItem(valueIndex);
+        StaticLayout valueLayout = new StaticLayout(value != null ? value : "", valuePaint, layoutWidth, alignment,
+                1, spacingAdd, false);
+
+        return new MeasuredItems(adapter, generation, widthIndex, layoutWidth, alignment, indices, layouts,
+                valueIndex, valueLayout);
+    }
+
+    /**
+     * 获取需要预先创建布局的条目索引, 当前条目上下各一屏, 不超过 WheelView 布局缓存的容量
+     *
+     * @param currentItem
+     *            当前条目
+     * @param visibleItems
+     *            可见条目数
+     * @param itemsCount
+     *            条目个数
+     * @param cyclic
+     *            是否循环
+     * @return
+     * 		适配器中的条目索引, 没有重复
+     */
+    static int[] collectIndices(int currentItem, int visibleItems, int itemsCount, boolean cyclic) {
+        if (itemsCount <= 0) {
+            return new int[0];
+        }
+        int half = visibleItems / 2 + 1 + visibleItems;
+        int[] indices = new int[half * 2 + 1];
+        int size = 0;
+        for (int i = currentItem - half; i <= currentItem + half; i++) {
+            if ((i < 0 || i >= itemsCount) && !cyclic) {
+                continue;
+            }
+            int realIndex = WheelMath.normalize(i, itemsCount);
+            //可循环并且条目很少时, 不同位置可能是同一个条目
+            boolean duplicate = false;
+            for (int j = 0; j < size && !duplicate; j++) {
+                duplicate = indices[j] == realIndex;
+            }
+            if (!duplicate) {
+                indices[size++] = realIndex;
+            }
+        }
+        int[] result = new int[size];
+        System.arraycopy(indices, 0, result, 0, size);
+        return result;
+    }
+}
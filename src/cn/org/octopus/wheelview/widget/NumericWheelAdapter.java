@@ -2,8 +2,10 @@ package cn.org.octopus.wheelview.widget;
 
 /**
  * 显示数字的 WheelAdapter
+ * 格式化之后的字符串会被缓存, 每个数值最多格式化一次
+ * 没有格式化字符串时, 按文字查找条目直接根据数值计算, 不需要格式化任何条目
  */
-public class NumericWheelAdapter implements WheelAdapter {
+public class NumericWheelAdapter implements IntWheelAdapter, IndexedWheelAdapter {
 
     /** 默认最小值 */
     public static final int DEFAULT_MAX_VALUE = 9;
@@ -11,6 +13,9 @@ public class NumericWheelAdapter implements WheelAdapter {
     /** 默认最大值 */
     private static final int DEFAULT_MIN_VALUE = 0;
 
+    /** 缓存格式化字符串的最大条目数, 条目数超过该值时不缓存 */
+    private static final int MAX_CACHED_ITEMS = 1024;
+
     /** 设置的最小值 */
     private int minValue;
     /** 设置的最大值 */
@@ -19,6 +24,13 @@ public class NumericWheelAdapter implements WheelAdapter {
     /** 格式化字符串, 用于格式化 货币, 科学计数, 十六进制 等格式 */
     private String format;
 
+    /** 格式化之后的字符串缓存, 以条目索引为下标, 第一次获取条目时填充
+     * 字符串是不可变对象, 多个线程同时填充同一个位置不会出现问题 */
+    private final String[] formattedItems;
+
+    /** 有格式化字符串时使用的查找索引, 第一次查找时建立 */
+    private WheelSearchIndex searchIndex;
+
     /**
      * 默认的构造方法, 使用默认的最大最小值
      */
@@ -52,24 +64,58 @@ public class NumericWheelAdapter implements WheelAdapter {
         this.minValue = minValue;
         this.maxValue = maxValue;
         this.format = format;
+
+        //条目数不多时缓存格式化之后的字符串, 例如 0..59 的分钟, 1900..2100 的年份
+        int count = getItemsCount();
+        formattedItems = count > 0 && count <= MAX_CACHED_ITEMS ? new String[count] : null;
     }
 
     @Override
     public String getItem(int index) {
-    	String result = "";
         if (index >= 0 && index < getItemsCount()) {
-            int value = minValue + index;
-            //如果 format 不为 null, 那么格式化字符串, 如果为 null, 直接返回数字
-            if(format != null){
-            	result = String.format(format, value);
-            }else{
-            	result = Integer.toString(value);
+            //优先使用缓存的字符串
+            if (formattedItems != null) {
+                String result = formattedItems[index];
+                if (result == null) {
+                    result = formatValue(minValue + index);
+                    formattedItems[index] = result;
+                }
+                return result;
             }
-            return result;
+            return formatValue(minValue + index);
         }
         return null;
     }
 
+    /**
+     * 将数值转为显示的字符串
+     * 
+     * @param value
+     *            数值
+     * @return 
+     * 		显示的字符串
+     */
+    private String formatValue(int value) {
+        //如果 format 不为 null, 那么格式化字符串, 如果为 null, 直接返回数字
+        if (format != null) {
+            return String.format(format, value);
+        }
+        return Integer.toString(value);
+    }
+
+    @Override
+    public int getItemValue(int index) {
+        return minValue + index;
+    }
+
+    @Override
+    public int getValueIndex(int value) {
+        if (value < minValue || value > maxValue) {
+            return -1;
+        }
+        return value - minValue;
+    }
+
     @Override
     public int getItemsCount() {
     	//返回数字总个数
@@ -87,4 +133,90 @@ public class NumericWheelAdapter implements WheelAdapter {
         }
         return maxLen;
     }
+
+    /**
+     * 查找显示文字以 prefix 开头的条目, 有多个时返回数值最小的
+     * 没有格式化字符串时, 以 p 开头的正数是 [p * 10^k, (p + 1) * 10^k) 这些区间, 
+     * 只需要计算每个区间与 [最小值, 最大值] 的交集, 最多 10 个区间
+     */
+    @Override
+    public int findPrefix(String prefix) {
+        if (format != null) {
+            return getSearchIndex().findPrefix(prefix);
+        }
+        String key = WheelSearchIndex.normalize(prefix);
+        boolean negative = key.startsWith("-");
+        String digits = negative ? key.substring(1) : key;
+        if (digits.length() == 0) {
+            //空前缀匹配第一个条目, "-" 匹配第一个负数
+            return getItemsCount() > 0 && (!negative || minValue < 0) ? 0 : -1;
+        }
+        //不是数字, 以 0 开头的多位数字, "-0" 都不是任何条目的前缀
+        if (digits.length() > 10 || !isDigits(digits)
+                || (digits.charAt(0) == '0' && (digits.length() > 1 || negative))) {
+            return -1;
+        }
+        long p = Long.parseLong(digits);
+        if (p == 0) {
+            return getValueIndex(0);
+        }
+
+        long best = Long.MAX_VALUE;
+        for (long scale = 1; scale <= 2147483648L / p; scale *= 10) {
+            long low = p * scale;
+            long high = low + scale - 1;
+            long from = negative ? -high : low;
+            long to = negative ? -low : high;
+            from = Math.max(from, minValue);
+            to = Math.min(to, maxValue);
+            if (from <= to) {
+                best = Math.min(best, from);
+            }
+        }
+        return best != Long.MAX_VALUE ? (int) (best - minValue) : -1;
+    }
+
+    /**
+     * 查找最接近的条目, 没有格式化字符串时把 text 解析为数值, 超出范围时取最近的一端
+     */
+    @Override
+    public int findNearest(String text) {
+        if (format != null) {
+            return getSearchIndex().findNearest(text);
+        }
+        if (getItemsCount() <= 0) {
+            return -1;
+        }
+        long value;
+        try {
+            value = Long.parseLong(WheelSearchIndex.normalize(text));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        value = Math.max(Math.min(value, maxValue), minValue);
+        return (int) (value - minValue);
+    }
+
+    /**
+     * 是否全部是数字
+     */
+    private static boolean isDigits(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取查找索引, 没有时建立
+     */
+    private WheelSearchIndex getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = WheelSearchIndex.build(this);
+        }
+        return searchIndex;
+    }
 }
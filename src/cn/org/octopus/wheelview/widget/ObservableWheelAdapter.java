@@ -0,0 +1,23 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * 可观察的 WheelView 适配器
+ * WheelView 设置该适配器时注册观察者, 数据改变之后只更新改变的条目, 保持选中的条目和滚动位置
+ */
+public interface ObservableWheelAdapter extends WheelAdapter {
+    /**
+     * 注册数据改变观察者
+     * 
+     * @param observer
+     *            the observer
+     */
+    void registerObserver(WheelAdapterObserver observer);
+
+    /**
+     * 注销数据改变观察者
+     * 
+     * @param observer
+     *            the observer
+     */
+    void unregisterObserver(WheelAdapterObserver observer);
+}
@@ -0,0 +1,21 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * 合并的条目改变监听器
+ * WheelView 使用合并回调模式时, 一次回调代表多次条目改变, 实现该接口可以得到改变的次数
+ */
+public interface OnWheelChangeSummaryListener extends OnWheelChangedListener {
+    /**
+     * 合并回调模式下, 一帧之内 或者 一次滚动过程中的条目改变合并之后回调该方法, 代替 onChanged
+     * 
+     * @param wheel
+     *            条目改变的 WheelView 对象
+     * @param oldValue
+     *            第一次改变之前的条目值
+     * @param newValue
+     *            最后一次改变之后的条目值
+     * @param changeCount
+     *            合并的条目改变次数
+     */
+    void onChangesCoalesced(WheelView wheel, int oldValue, int newValue, int changeCount);
+}
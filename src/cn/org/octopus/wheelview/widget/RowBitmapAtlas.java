@@ -0,0 +1,227 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.Arrays;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.TextPaint;
+
+/**
+ * 条目位图图集
+ * -- 每个条目只栅格化一次, 保存在一张大位图中的一个格子里, 之后直接复制该格子绘制
+ * -- 格子按照 LRU 策略复用, 图集的内存占用有固定上限
+ * -- 栅格化的结果取决于画笔的状态 (颜色, 字号, 字体, 标志, drawableState), 画笔状态改变时清空所有条目
+ * -- 适合反复显示同一批条目的 WheelView, 例如 可循环的 小时 / 分钟 选择器;
+ *    经常出现新条目时, 每次栅格化都需要重新上传整张图集, 反而更慢
+ * -- 只能在 UI 线程中使用, 命中时绘制过程中不会创建新对象
+ */
+class RowBitmapAtlas {
+
+    /** 图集位图的最大边长, 超过该尺寸的位图无法作为纹理上传 */
+    private static final int MAX_ATLAS_SIZE = 2048;
+
+    /** 每个格子的宽度 */
+    private final int rowWidth;
+    /** 每个格子的高度 */
+    private final int rowHeight;
+
+    /** 图集位图 */
+    private Bitmap atlas;
+    /** 在图集上绘制条目的画布 */
+    private final Canvas atlasCanvas;
+
+    /** 已经栅格化的条目, 值是条目所在的格子 */
+    private final IntLruCache<Rect> rows;
+    /** 空闲的格子 */
+    private final Rect[] freeSlots;
+    private int freeCount;
+
+    /** 绘制时的目标区域 */
+    private final Rect dst = new Rect();
+
+    // 栅格化已有条目时的画笔状态
+    private int paintColor;
+    private float paintTextSize;
+    private Typeface paintTypeface;
+    private int paintFlags;
+    private int[] paintDrawableState;
+
+    /**
+     * 构造方法
+     *
+     * @param rowWidth
+     *            条目宽度
+     * @param rowHeight
+     *            条目高度
+     * @param maxBytes
+     *            图集最多占用的内存, 单位字节
+     */
+    RowBitmapAtlas(int rowWidth, int rowHeight, int maxBytes) {
+        this.rowWidth = rowWidth;
+        this.rowHeight = rowHeight;
+
+        //根据内存上限 和 位图最大边长 计算格子个数
+        int slotsPerLine = Math.max(1, MAX_ATLAS_SIZE / rowWidth);
+        int maxLines = Math.max(1, MAX_ATLAS_SIZE / rowHeight);
+        int slots = Math.max(1, maxBytes / (rowWidth * rowHeight * 4));
+        slots = Math.min(slots, slotsPerLine * maxLines);
+        int columns = Math.min(slots, slotsPerLine);
+        int lines = (slots + columns - 1) / columns;
+
+        atlas = Bitmap.createBitmap(columns * rowWidth, lines * rowHeight, Bitmap.Config.ARGB_8888);
+        atlasCanvas = new Canvas(atlas);
+
+        freeSlots = new Rect[slots];
+        for (int i = 0; i < slots; i++) {
+            int left = i % columns * rowWidth;
+            int top = i / columns * rowHeight;
+            freeSlots[i] = new Rect(left, top, left + rowWidth, top + rowHeight);
+        }
+        freeCount = slots;
+
+        rows = new IntLruCache<Rect>(slots) {
+            @Override
+            protected void entryRemoved(int key, Rect slot) {
+                //格子被淘汰之后放回空闲列表
+                freeSlots[freeCount++] = slot;
+            }
+        };
+    }
+
+    /**
+     * 格子的尺寸是否与给定的尺寸相同
+     *
+     * @param width
+     *            条目宽度
+     * @param height
+     *            条目高度
+     * @return 相同返回 true
+     */
+    boolean matches(int width, int height) {
+        return rowWidth == width && rowHeight == height;
+    }
+
+    /**
+     * 检查画笔状态, 与栅格化已有条目时的状态不同时清空所有条目, 每一帧绘制条目之前调用
+     * 状态没有改变时不会创建新对象
+     *
+     * @param paint
+     *            绘制条目的画笔
+     */
+    void validate(TextPaint paint) {
+        if (paint.getColor() == paintColor && paint.getTextSize() == paintTextSize
+                && paint.getTypeface() == paintTypeface && paint.getFlags() == paintFlags
+                && Arrays.equals(paint.drawableState, paintDrawableState)) {
+            return;
+        }
+        rows.clear();
+        paintColor = paint.getColor();
+        paintTextSize = paint.getTextSize();
+        paintTypeface = paint.getTypeface();
+        paintFlags = paint.getFlags();
+        paintDrawableState = paint.drawableState != null ? paint.drawableState.clone() : null;
+    }
+
+    /**
+     * 在画布的 (0, 0) 位置绘制已经栅格化的条目
+     *
+     * @param canvas
+     *            画布
+     * @param index
+     *            条目索引
+     * @return 条目已经栅格化并且绘制了返回 true, 否则返回 false
+     */
+    boolean draw(Canvas canvas, int index) {
+        Rect slot = rows.get(index);
+        if (slot == null) {
+            return false;
+        }
+        dst.set(0, 0, rowWidth, rowHeight);
+        canvas.drawBitmap(atlas, slot, dst, null);
+        return true;
+    }
+
+    /**
+     * 栅格化一个条目, 之后在画布的 (0, 0) 位置绘制
+     *
+     * @param canvas
+     *            画布
+     * @param index
+     *            条目索引
+     * @param layout
+     *            条目布局
+     */
+    void rasterizeAndDraw(Canvas canvas, int index, Layout layout) {
+        if (freeCount == 0) {
+            rows.removeEldest();
+        }
+        Rect slot = freeSlots[--freeCount];
+        freeSlots[freeCount] = null;
+
+        atlasCanvas.save();
+        atlasCanvas.clipRect(slot);
+        atlasCanvas.drawColor(0, PorterDuff.Mode.CLEAR);
+        atlasCanvas.translate(slot.left, slot.top);
+        layout.draw(atlasCanvas);
+        atlasCanvas.restore();
+
+        rows.put(index, slot);
+        draw(canvas, index);
+    }
+
+    /**
+     * 移除一个条目, 条目内容改变时调用
+     *
+     * @param index
+     *            条目索引
+     */
+    void remove(int index) {
+        rows.remove(index);
+    }
+
+    /**
+     * 移除 [from, to) 范围内的条目
+     *
+     * @param from
+     *            第一个条目索引
+     * @param to
+     *            最后一个条目索引加 1
+     */
+    void removeRange(int from, int to) {
+        rows.removeRange(from, to);
+    }
+
+    /**
+     * 平移条目索引, 条目插入或者移除之后调用
+     *
+     * @param from
+     *            需要平移的最小索引
+     * @param delta
+     *            平移的距离
+     */
+    void shiftIndices(int from, int delta) {
+        rows.shiftKeys(from, delta);
+    }
+
+    /**
+     * 移除所有条目
+     */
+    void clear() {
+        rows.clear();
+    }
+
+    /**
+     * 释放图集位图, 释放之后不能再使用
+     */
+    void recycle() {
+        rows.clear();
+        if (atlas != null) {
+            atlas.recycle();
+            atlas = null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * 条目保存在共享字符串池中的 WheelView 适配器
+ * -- 每个条目只是一个 int 编号, 字符数据保存在 WheelStringPool 中, 相同的条目只保存一次
+ * -- 同一份数据的所有适配器共享一个字符串池, 适配器本身只占用编号数组
+ * -- 条目在获取时才从字符串池中取出, 最近使用的字符串由字符串池缓存, WheelView 的布局缓存只保留显示过的条目
+ */
+public class StringPoolWheelAdapter implements IndexedWheelAdapter {
+
+    /** 字符串池 */
+    private final WheelStringPool pool;
+    /** 每个条目的字符串编号 */
+    private final int[] ids;
+    /** 条目的最大字符个数, -1 时 WheelView 测量条目宽度 */
+    private final int length;
+
+    /** 查找索引, 第一次查找时建立 */
+    private WheelSearchIndex searchIndex;
+
+    /**
+     * 构造方法
+     * 
+     * @param pool
+     *            字符串池
+     * @param ids
+     *            每个条目的字符串编号, 之后不能再修改
+     */
+    public StringPoolWheelAdapter(WheelStringPool pool, int[] ids) {
+        this(pool, ids, ArrayWheelAdapter.DEFAULT_LENGTH);
+    }
+
+    /**
+     * 构造方法
+     * 
+     * @param pool
+     *            字符串池
+     * @param ids
+     *            每个条目的字符串编号, 之后不能再修改
+     * @param length
+     *            条目的最大字符个数, -1 时 WheelView 测量条目宽度
+     */
+    public StringPoolWheelAdapter(WheelStringPool pool, int[] ids, int length) {
+        this.pool = pool;
+        this.ids = ids;
+        this.length = length;
+    }
+
+    @Override
+    public String getItem(int index) {
+        if (index >= 0 && index < ids.length) {
+            return pool.getString(ids[index]);
+        }
+        return null;
+    }
+
+    @Override
+    public int getItemsCount() {
+        return ids.length;
+    }
+
+    @Override
+    public int getMaximumLength() {
+        return length;
+    }
+
+    @Override
+    public int findPrefix(String prefix) {
+        return getSearchIndex().findPrefix(prefix);
+    }
+
+    @Override
+    public int findNearest(String text) {
+        return getSearchIndex().findNearest(text);
+    }
+
+    /**
+     * 获取查找索引, 没有时建立
+     * 
+     * @return 
+     * 		查找索引
+     */
+    private WheelSearchIndex getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = WheelSearchIndex.build(this);
+        }
+        return searchIndex;
+    }
+}
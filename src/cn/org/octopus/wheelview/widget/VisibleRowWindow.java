@@ -0,0 +1,154 @@
+package cn.org.octopus.wheelview.widget;
+
+import android.text.StaticLayout;
+
+/**
+ * 当前绘制的条目布局窗口
+ * -- 环形数组保存 当前条目上下各 addItems 行 的条目布局, 绘制时按行直接取出, 不需要查询布局缓存
+ * -- 当前条目改变一个条目时, 只旋转数组的起点并清空新进入窗口的一行, 与窗口的行数无关
+ * -- 布局缓存改变 (清空, 条目改变, 插入, 移除), 条目个数 或者 是否循环改变时, 整个窗口失效
+ * -- 非线程安全, 只能在 UI 线程中使用
+ */
+final class VisibleRowWindow {
+
+    /** 每一行的布局, 按环形数组保存 */
+    private final StaticLayout[] rows;
+    /** 每一行是否已经填充, 适配器没有返回字符串时布局为 null, 但也是已经填充的 */
+    private final boolean[] filled;
+    /** 第 0 行在环形数组中的位置 */
+    private int head;
+
+    /** 窗口中间一行对应的当前条目 */
+    private int center;
+    /** 窗口对应的布局缓存 */
+    private ItemLayoutCache cache;
+    /** 窗口对应的布局缓存版本 */
+    private int cacheVersion;
+    /** 窗口对应的条目个数 */
+    private int itemsCount;
+    /** 窗口对应的是否循环 */
+    private boolean cyclic;
+
+    /**
+     * 构造方法
+     *
+     * @param size
+     *            窗口的行数
+     */
+    VisibleRowWindow(int size) {
+        rows = new StaticLayout[size];
+        filled = new boolean[size];
+    }
+
+    /**
+     * 获取窗口的行数
+     *
+     * @return 行数
+     */
+    int size() {
+        return rows.length;
+    }
+
+    /**
+     * 将窗口移动到当前条目, 每一帧绘制之前调用
+     * 当前条目移动的距离小于窗口行数时, 只清空新进入窗口的行
+     *
+     * @param currentItem
+     *            当前条目
+     * @param cache
+     *            布局缓存
+     * @param itemsCount
+     *            条目个数
+     * @param cyclic
+     *            是否循环
+     */
+    void moveTo(int currentItem, ItemLayoutCache cache, int itemsCount, boolean cyclic) {
+        if (cache != this.cache || cache.getVersion() != cacheVersion || itemsCount != this.itemsCount
+                || cyclic != this.cyclic) {
+            this.cache = cache;
+            this.cacheVersion = cache.getVersion();
+            this.itemsCount = itemsCount;
+            this.cyclic = cyclic;
+            this.center = currentItem;
+            clear();
+            return;
+        }
+
+        //可循环时跨越首尾也只移动一个条目
+        int delta = cyclic ? WheelMath.cyclicDistance(center, currentItem, itemsCount) : currentItem - center;
+        center = currentItem;
+        if (delta == 0) {
+            return;
+        }
+        int size = rows.length;
+        if (Math.abs(delta) >= size) {
+            clear();
+            return;
+        }
+
+        //旋转起点, 第 r 行变成原来的第 r + delta 行
+        head = WheelMath.normalize(head + delta, size);
+        int from = delta > 0 ? size - delta : 0;
+        int to = delta > 0 ? size : -delta;
+        for (int row = from; row < to; row++) {
+            int slot = slotOf(row);
+            rows[slot] = null;
+            filled[slot] = false;
+        }
+    }
+
+    /**
+     * 该行是否已经填充
+     *
+     * @param row
+     *            行, 0 是窗口的第一行
+     * @return 已经填充返回 true
+     */
+    boolean isFilled(int row) {
+        return filled[slotOf(row)];
+    }
+
+    /**
+     * 获取一行的布局
+     *
+     * @param row
+     *            行, 0 是窗口的第一行
+     * @return 布局, 没有填充或者该行没有条目返回 null
+     */
+    StaticLayout get(int row) {
+        return rows[slotOf(row)];
+    }
+
+    /**
+     * 填充一行
+     *
+     * @param row
+     *            行, 0 是窗口的第一行
+     * @param layout
+     *            该行的布局, 可以为 null
+     */
+    void set(int row, StaticLayout layout) {
+        int slot = slotOf(row);
+        rows[slot] = layout;
+        filled[slot] = true;
+    }
+
+    /**
+     * 清空所有行
+     */
+    void clear() {
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = null;
+            filled[i] = false;
+        }
+        head = 0;
+    }
+
+    /**
+     * 计算行在环形数组中的位置
+     */
+    private int slotOf(int row) {
+        int slot = head + row;
+        return slot < rows.length ? slot : slot - rows.length;
+    }
+}
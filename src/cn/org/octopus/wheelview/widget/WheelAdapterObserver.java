@@ -0,0 +1,42 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * 适配器数据改变观察者
+ * 可观察的适配器在数据改变之后回调, 只需要更新改变的条目, 不需要重新设置适配器
+ */
+public interface WheelAdapterObserver {
+    /**
+     * 一段条目的内容改变了, 条目个数不变
+     * 
+     * @param start
+     *            第一个改变的条目索引
+     * @param count
+     *            改变的条目个数
+     */
+    void onItemRangeChanged(int start, int count);
+
+    /**
+     * 插入了一段条目, 原来从 start 开始的条目向后移动 count 个位置
+     * 
+     * @param start
+     *            第一个插入的条目索引
+     * @param count
+     *            插入的条目个数
+     */
+    void onItemRangeInserted(int start, int count);
+
+    /**
+     * 移除了一段条目, 原来从 start + count 开始的条目向前移动 count 个位置
+     * 
+     * @param start
+     *            第一个移除的条目在移除之前的索引
+     * @param count
+     *            移除的条目个数
+     */
+    void onItemRangeRemoved(int start, int count);
+
+    /**
+     * 数据整体改变了, 无法描述为以上几种改变
+     */
+    void onDataSetChanged();
+}
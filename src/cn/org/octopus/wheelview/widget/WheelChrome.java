@@ -0,0 +1,211 @@
+package cn.org.octopus.wheelview.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+
+/**
+ * WheelView 的静态装饰: 背景, 选中条目背景, 顶部和底部阴影
+ * -- 背景覆盖整个组件, 直接绘制在条目下面
+ * -- 选中条目背景和上下两条阴影在滚动时不会改变, 只在尺寸改变时按各自的大小绘制到三张小位图中,
+ *    每一帧在各自的位置绘制位图, 不需要重新绘制渐变; 只覆盖这三块区域, 不会混合整个组件
+ * -- 装饰图片来自共享的样式, 多个 WheelView 使用同一组图片, 每次绘制之前重新设置边界
+ */
+class WheelChrome {
+
+    /** 组件背景 */
+    private final Drawable background;
+    /** 选中条目的背景 */
+    private final Drawable centerDrawable;
+    /** 顶部阴影 */
+    private final Drawable topShadow;
+    /** 底部阴影 */
+    private final Drawable bottomShadow;
+
+    /** 选中条目背景位图, 高度为选中条目背景的高度 */
+    private Bitmap centerBitmap;
+    /** 顶部阴影位图 */
+    private Bitmap topShadowBitmap;
+    /** 底部阴影位图 */
+    private Bitmap bottomShadowBitmap;
+    /** 绘制位图使用的画布 */
+    private final Canvas bitmapCanvas = new Canvas();
+
+    /** 位图无法创建时 (内存不足) 直接绘制装饰 */
+    private boolean drawDirectly;
+
+    /** 缓存的位图对应的尺寸 */
+    private int width = -1;
+    private int height = -1;
+    private int itemHeight = -1;
+    private int visibleItems = -1;
+
+    /** 选中条目背景的顶部和高度 */
+    private int centerTop;
+    private int centerHeight;
+    /** 阴影的高度 */
+    private int shadowHeight;
+
+    /**
+     * 构造方法
+     *
+     * @param style
+     *            共享的样式, 使用其中的装饰图片
+     */
+    WheelChrome(WheelStyle style) {
+        this.background = style.background;
+        this.centerDrawable = style.centerDrawable;
+        this.topShadow = style.topShadow;
+        this.bottomShadow = style.bottomShadow;
+    }
+
+    /**
+     * 绘制条目下面的背景, 尺寸改变时重新创建缓存的位图
+     *
+     * @param canvas
+     *            画布
+     * @param width
+     *            组件宽度
+     * @param height
+     *            组件高度
+     * @param itemHeight
+     *            条目高度
+     * @param visibleItems
+     *            可见条目数
+     */
+    void drawUnderlay(Canvas canvas, int width, int height, int itemHeight, int visibleItems) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (width != this.width || height != this.height || itemHeight != this.itemHeight
+                || visibleItems != this.visibleItems) {
+            this.width = width;
+            this.height = height;
+            this.itemHeight = itemHeight;
+            this.visibleItems = visibleItems;
+            rebuild();
+        }
+        drawBackground(canvas);
+    }
+
+    /**
+     * 绘制条目上面的选中条目背景和阴影, 需要先调用 drawUnderlay
+     *
+     * @param canvas
+     *            画布
+     */
+    void drawOverlay(Canvas canvas) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (drawDirectly) {
+            drawCenterRect(canvas, centerTop);
+            drawShadow(canvas, topShadow, 0);
+            drawShadow(canvas, bottomShadow, height - shadowHeight);
+            return;
+        }
+        if (centerBitmap != null) {
+            canvas.drawBitmap(centerBitmap, 0, centerTop, null);
+        }
+        if (topShadowBitmap != null) {
+            canvas.drawBitmap(topShadowBitmap, 0, 0, null);
+            canvas.drawBitmap(bottomShadowBitmap, 0, height - shadowHeight, null);
+        }
+    }
+
+    /**
+     * 释放缓存的位图, 下次绘制时重新创建
+     */
+    void recycle() {
+        recycleBitmaps();
+        width = height = itemHeight = visibleItems = -1;
+    }
+
+    /**
+     * 重新创建并绘制缓存的位图
+     */
+    private void rebuild() {
+        recycleBitmaps();
+
+        int offset = itemHeight / 2;
+        centerTop = height / 2 - offset;
+        centerHeight = offset * 2;
+        shadowHeight = visibleItems > 0 ? height / visibleItems : 0;
+
+        try {
+            if (centerHeight > 0) {
+                centerBitmap = Bitmap.createBitmap(width, centerHeight, Bitmap.Config.ARGB_8888);
+            }
+            if (shadowHeight > 0) {
+                topShadowBitmap = Bitmap.createBitmap(width, shadowHeight, Bitmap.Config.ARGB_8888);
+                bottomShadowBitmap = Bitmap.createBitmap(width, shadowHeight, Bitmap.Config.ARGB_8888);
+            }
+        } catch (OutOfMemoryError e) {
+            recycleBitmaps();
+            drawDirectly = true;
+            return;
+        }
+        drawDirectly = false;
+
+        //位图中的装饰从位图顶部开始绘制
+        if (centerBitmap != null) {
+            bitmapCanvas.setBitmap(centerBitmap);
+            drawCenterRect(bitmapCanvas, 0);
+        }
+        if (topShadowBitmap != null) {
+            bitmapCanvas.setBitmap(topShadowBitmap);
+            drawShadow(bitmapCanvas, topShadow, 0);
+            bitmapCanvas.setBitmap(bottomShadowBitmap);
+            drawShadow(bitmapCanvas, bottomShadow, 0);
+        }
+        bitmapCanvas.setBitmap(null);
+    }
+
+    /**
+     * 释放三张位图
+     */
+    private void recycleBitmaps() {
+        if (centerBitmap != null) {
+            centerBitmap.recycle();
+            centerBitmap = null;
+        }
+        if (topShadowBitmap != null) {
+            topShadowBitmap.recycle();
+            topShadowBitmap = null;
+        }
+        if (bottomShadowBitmap != null) {
+            bottomShadowBitmap.recycle();
+            bottomShadowBitmap = null;
+        }
+    }
+
+    /**
+     * 绘制组件背景
+     */
+    private void drawBackground(Canvas canvas) {
+        background.setBounds(0, 0, width, height);
+        background.draw(canvas);
+    }
+
+    /**
+     * 绘制当前选中条目的背景图片
+     *
+     * @param top
+     *            背景的顶部
+     */
+    private void drawCenterRect(Canvas canvas, int top) {
+        centerDrawable.setBounds(0, top, width, top + centerHeight);
+        centerDrawable.draw(canvas);
+    }
+
+    /**
+     * 绘制一条阴影
+     *
+     * @param top
+     *            阴影的顶部
+     */
+    private void drawShadow(Canvas canvas, Drawable shadow, int top) {
+        shadow.setBounds(0, top, width, top + shadowHeight);
+        shadow.draw(canvas);
+    }
+}
@@ -0,0 +1,304 @@
+package cn.org.octopus.wheelview.widget;
+
+import android.text.StaticLayout;
+
+/**
+ * 一列条目的状态, WheelView 和 WheelGroup 的每一列各有一个
+ * -- 包括 适配器, 条目个数, 条目布局缓存, 条目宽度索引 和 选中条目布局
+ * -- 同时是适配器的观察者, 数据改变时只移除或者平移受影响的条目布局 和 条目宽度, 保持选中的条目和滚动位置
+ * -- 需要由使用者处理的事件 (回调监听器, 重新测量, 重绘) 通过子类实现的方法通知
+ */
+abstract class WheelColumn implements WheelAdapterObserver {
+
+    /** 滚动引擎, 保存当前条目, 由使用者在构造之后设置 */
+    WheelScrollEngine engine;
+
+    /** 适配器 */
+    WheelAdapter adapter;
+    /** 适配器的条目个数
+     * 在设置适配器 和 测量组件时从适配器读取, 滚动和绘制过程中不再查询适配器 */
+    int itemsCount;
+
+    /** 普通条目布局缓存
+     * 每个条目单独创建一个 StaticLayout, 以条目索引为键缓存,
+     * 滚动时只需要为新出现的条目创建布局
+     *  */
+    ItemLayoutCache itemsCache;
+    /** 条目宽度索引, 记录测量过的条目宽度, 适配器改变时重新建立 */
+    ItemWidthIndex widthIndex;
+    /** 选中条目布局 */
+    StaticLayout valueLayout;
+
+    /**
+     * 当前条目因为数据改变而改变, 例如 前面插入或者移除了条目
+     *
+     * @param oldItem
+     *            旧的条目
+     * @param newItem
+     *            新的条目
+     */
+    abstract void onCurrentItemChanged(int oldItem, int newItem);
+
+    /**
+     * 条目的宽度改变, 需要重新测量
+     */
+    abstract void requestLayout();
+
+    /**
+     * 需要重绘
+     */
+    abstract void invalidate();
+
+    /**
+     * 适配器数据改变, 根据之前的数据建立的结果 (例如 查找索引, 后台测量结果) 已经过期
+     */
+    void onItemsInvalidated() {
+    }
+
+    /**
+     * 适配器的所有数据改变, 缓存的条目布局和宽度已经清空
+     */
+    void onItemsReset() {
+    }
+
+    /**
+     * 获取性能统计
+     *
+     * @return 性能统计, 为 null 时不统计
+     */
+    WheelMetrics getMetrics() {
+        return null;
+    }
+
+    /**
+     * 设置适配器, 观察可观察的适配器, 清空为之前的适配器创建的布局 和 宽度索引
+     *
+     * @param adapter
+     *            适配器, 可以为 null
+     */
+    void setAdapter(WheelAdapter adapter) {
+        //可观察的适配器数据改变之后通知这一列更新改变的条目 (包括异步适配器加载完成)
+        if (this.adapter instanceof ObservableWheelAdapter) {
+            ((ObservableWheelAdapter) this.adapter).unregisterObserver(this);
+        }
+        if (adapter instanceof ObservableWheelAdapter) {
+            ((ObservableWheelAdapter) adapter).registerObserver(this);
+        }
+        this.adapter = adapter;
+        itemsCount = adapter != null ? adapter.getItemsCount() : 0;
+        //条目索引对应的内容已经改变, 清空缓存的条目布局 和 宽度索引
+        if (itemsCache != null) {
+            itemsCache.clear();
+        }
+        widthIndex = null;
+        valueLayout = null;
+    }
+
+    /**
+     * 将条目索引转换为适配器中的真实索引
+     *
+     * @param index
+     *            条目索引, 可循环时可以小于 0 或者大于条目个数
+     * @param cyclic
+     *            是否循环
+     * @return
+     * 		适配器中的条目索引, 如果该位置没有条目返回 -1
+     */
+    int getRealIndex(int index, boolean cyclic) {
+        if (adapter == null || itemsCount == 0) {
+            return -1;
+        }
+        //不可循环时 超出范围的索引没有条目
+        if ((index < 0 || index >= itemsCount) && !cyclic) {
+            return -1;
+        }
+        //可循环时 转换到 [0, count) 范围内
+        return WheelMath.normalize(index, itemsCount);
+    }
+
+    /**
+     * 获取条目的布局, 优先使用缓存的布局, 没有缓存时创建该条目的布局
+     *
+     * @param realIndex
+     *            适配器中的条目索引
+     * @return
+     * 		条目的布局, 如果适配器没有返回字符串返回 null
+     */
+    StaticLayout getItemLayout(int realIndex) {
+        StaticLayout layout = itemsCache.get(realIndex);
+        if (layout == null) {
+            String text = adapter.getItem(realIndex);
+            if (text != null) {
+                layout = itemsCache.put(realIndex, text);
+            }
+            WheelMetrics metrics = getMetrics();
+            if (metrics != null) {
+                metrics.recordItemRequests(1);
+                if (layout != null) {
+                    metrics.recordLayoutCreated();
+                }
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * 返回 条目的最大宽度
+     * -- 适配器给出了最大字符个数时, 使用字符 "0" 的宽度估算
+     * -- 否则使用条目宽度索引, 条目只在第一次出现时使用真实的画笔测量
+     *
+     * @param style
+     *            绘制样式
+     * @param visibleItems
+     *            可见条目数, 索引不完整时测量当前显示的条目
+     * @return
+     * 		条目最大宽度, 单位像素
+     */
+    int getMaxTextWidth(WheelStyle style, int visibleItems) {
+        if (adapter == null) {
+            return 0;
+        }
+
+        //如果获取的最大条目宽度不为 -1, 使用最大字符个数计算宽度
+        int adapterLength = adapter.getMaximumLength();
+        if (adapterLength > 0) {
+            return style.getCharsWidth(adapterLength);
+        }
+
+        /*
+         * 适配器改变 或者 条目个数改变 时重新建立索引
+         * 异步适配器不测量所有条目, 否则会加载所有数据
+         */
+        WheelMetrics metrics = getMetrics();
+        if (widthIndex == null || widthIndex.getCount() != itemsCount) {
+            widthIndex = new ItemWidthIndex(style.itemsPaint);
+            widthIndex.build(adapter, !(adapter instanceof AsyncWheelAdapter));
+            if (metrics != null && widthIndex.isComplete()) {
+                metrics.recordItemRequests(itemsCount);
+            }
+        }
+
+        //不完整的索引, 测量当前显示的条目
+        if (!widthIndex.isComplete()) {
+            int addItems = visibleItems / 2;
+            int currentItem = engine.getCurrentItem();
+            for (int i = Math.max(currentItem - addItems, 0); i < Math.min(currentItem + visibleItems,
+                    itemsCount); i++) {
+                widthIndex.measure(i, adapter.getItem(i));
+                if (metrics != null) {
+                    metrics.recordItemRequests(1);
+                }
+            }
+        }
+
+        return (int) Math.ceil(widthIndex.getMaxWidth());
+    }
+
+    /**
+     * 如果适配器是异步适配器, 预加载当前条目附近的条目
+     *
+     * @param direction
+     *            滚动方向, 大于 0 向后, 小于 0 向前, 0 表示没有方向
+     * @param window
+     *            预加载的条目数, 0 表示不预加载
+     */
+    void prefetch(int direction, int window) {
+        if (adapter instanceof AsyncWheelAdapter && window > 0) {
+            ((AsyncWheelAdapter) adapter).prefetch(engine.getCurrentItem(), direction, window);
+        }
+    }
+
+    @Override
+    public void onItemRangeChanged(int start, int count) {
+        onItemsInvalidated();
+        if (itemsCache != null) {
+            itemsCache.onItemsChanged(start, count);
+        }
+        //测量改变的条目, 最大宽度改变时重新测量组件
+        if (widthIndex != null && widthIndex.onItemsChanged(adapter, start, count)) {
+            requestLayout();
+        }
+        WheelMetrics metrics = getMetrics();
+        if (metrics != null) {
+            metrics.recordItemRequests(count);
+        }
+        //当前条目改变了, 重新创建选中条目布局, 不改变滚动位置
+        int currentItem = engine.getCurrentItem();
+        if (currentItem >= start && currentItem < start + count) {
+            valueLayout = null;
+        }
+        invalidate();
+    }
+
+    @Override
+    public void onItemRangeInserted(int start, int count) {
+        onItemsInvalidated();
+        int oldCount = itemsCount;
+        itemsCount = adapter.getItemsCount();
+        if (itemsCache != null) {
+            itemsCache.onItemsInserted(start, count);
+        }
+        if (widthIndex != null && widthIndex.onItemsInserted(adapter, start, count)) {
+            requestLayout();
+        }
+
+        int old = engine.getCurrentItem();
+        if (oldCount == 0) {
+            //之前没有条目, 选中第一个条目
+            engine.setCurrentItem(0);
+            valueLayout = null;
+        } else if (start <= old) {
+            //选中的条目向后移动, 仍然选中它
+            engine.setCurrentItem(old + count);
+            onCurrentItemChanged(old, old + count);
+        }
+        invalidate();
+    }
+
+    @Override
+    public void onItemRangeRemoved(int start, int count) {
+        onItemsInvalidated();
+        itemsCount = adapter.getItemsCount();
+        if (itemsCache != null) {
+            itemsCache.onItemsRemoved(start, count);
+        }
+        if (widthIndex != null && widthIndex.onItemsRemoved(start, count)) {
+            requestLayout();
+        }
+
+        int old = engine.getCurrentItem();
+        if (old >= start + count) {
+            //选中的条目向前移动, 仍然选中它
+            engine.setCurrentItem(old - count);
+        } else if (old >= start) {
+            //选中的条目被移除, 选中移除位置的条目
+            engine.setCurrentItem(Math.max(Math.min(start, itemsCount - 1), 0));
+            valueLayout = null;
+        }
+        if (old != engine.getCurrentItem()) {
+            onCurrentItemChanged(old, engine.getCurrentItem());
+        }
+        invalidate();
+    }
+
+    @Override
+    public void onDataSetChanged() {
+        onItemsInvalidated();
+        itemsCount = adapter.getItemsCount();
+        if (itemsCache != null) {
+            itemsCache.clear();
+        }
+        widthIndex = null;
+        valueLayout = null;
+
+        int old = engine.getCurrentItem();
+        engine.setCurrentItem(Math.max(Math.min(old, itemsCount - 1), 0));
+        if (old != engine.getCurrentItem()) {
+            onCurrentItemChanged(old, engine.getCurrentItem());
+        }
+
+        onItemsReset();
+        requestLayout();
+        invalidate();
+    }
+}
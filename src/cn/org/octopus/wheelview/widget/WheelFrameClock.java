@@ -0,0 +1,40 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * WheelView 动画使用的帧时钟
+ * -- 动画每一帧只推进一次, 由帧时钟决定什么时候回调下一帧
+ * -- 默认实现在 Android 4.1 以上使用 Choreographer 与屏幕刷新同步,
+ *    也可以替换成自定义的实现, 例如在 JVM 上手动驱动的时钟
+ */
+public interface WheelFrameClock {
+
+    /**
+     * 请求在下一帧回调一次, 回调之后如果还需要下一帧需要再次请求
+     * 同一个回调对象在一帧中重复请求只会回调一次
+     *
+     * @param callback
+     *            帧回调
+     */
+    void postFrameCallback(FrameCallback callback);
+
+    /**
+     * 取消还没有执行的帧回调
+     *
+     * @param callback
+     *            帧回调
+     */
+    void removeFrameCallback(FrameCallback callback);
+
+    /**
+     * 帧回调
+     */
+    interface FrameCallback {
+        /**
+         * 一帧开始时回调该方法
+         *
+         * @param frameTimeNanos
+         *            该帧开始的时间, 单位纳秒
+         */
+        void doFrame(long frameTimeNanos);
+    }
+}
@@ -0,0 +1,757 @@
+package cn.org.octopus.wheelview.widget;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.GestureDetector.SimpleOnGestureListener;
+import android.view.MotionEvent;
+import android.view.View;
+
+/**
+ * 多列 WheelView, 在一个 View 中显示多个列, 例如 年 / 月 / 日 / 时 / 分 选择器
+ * -- 每一列有自己的适配器, 条目布局缓存, 宽度索引 和 滚动引擎, 条目的绘制方式与 WheelView 相同
+ * -- 所有列共享一份样式, 背景, 选中条目背景 和 阴影在整个组件上只绘制一次, 而不是每列绘制一次
+ * -- 一次测量计算所有列的宽度, 按各列需要的宽度比例分配组件宽度
+ * -- 按手指按下的位置把触摸事件交给对应的列, 所有列的滚动动画由同一个帧回调驱动, 每帧只重绘一次
+ */
+public class WheelGroup extends View {
+
+    /**
+     * 列的条目改变监听器
+     */
+    public interface OnColumnChangedListener {
+        /**
+         * 某一列的当前条目改变之后回调
+         *
+         * @param group
+         *            the wheel group
+         * @param column
+         *            列的索引
+         * @param oldValue
+         *            旧的条目
+         * @param newValue
+         *            新的条目
+         */
+        void onColumnChanged(WheelGroup group, int column, int oldValue, int newValue);
+    }
+
+    /**
+     * 列的滚动监听器
+     */
+    public interface OnColumnScrollListener {
+        /**
+         * 某一列开始滚动
+         *
+         * @param group
+         *            the wheel group
+         * @param column
+         *            列的索引
+         */
+        void onColumnScrollingStarted(WheelGroup group, int column);
+
+        /**
+         * 某一列停止滚动
+         *
+         * @param group
+         *            the wheel group
+         * @param column
+         *            列的索引
+         */
+        void onColumnScrollingFinished(WheelGroup group, int column);
+    }
+
+    /**
+     * 一列的状态, 同时是该列滚动引擎的回调
+     * 适配器, 条目布局 和 适配器的观察 由 WheelColumn 实现, 与 WheelView 相同
+     */
+    private final class Column extends WheelColumn implements WheelScrollEngine.Callback {
+
+        /** 列的索引 */
+        final int index;
+
+        /** 是否循环 */
+        boolean cyclic;
+
+        /** 当前绘制的条目布局窗口 */
+        VisibleRowWindow rowWindow;
+
+        /** 测量时需要的宽度 */
+        int desiredWidth;
+        /** 列的左边界 */
+        int left;
+        /** 列的宽度 */
+        int width;
+
+        Column(int index) {
+            this.index = index;
+            engine = new WheelScrollEngine(this);
+            engine.setFriction(WheelScrollEngine.DEFAULT_FRICTION, getContext().getResources().getDisplayMetrics().density);
+        }
+
+        /**
+         * 设置适配器, 清空为之前的适配器创建的布局
+         */
+        @Override
+        void setAdapter(WheelAdapter adapter) {
+            super.setAdapter(adapter);
+            engine.resetOffset();
+            engine.setCurrentItem(Math.max(Math.min(engine.getCurrentItem(), itemsCount - 1), 0));
+            prefetch(0, WheelView.DEF_PREFETCH_WINDOW);
+        }
+
+        /**
+         * 将布局参数设置到滚动引擎, 在驱动引擎之前调用
+         */
+        void updateEngineLayout() {
+            engine.setLayout(itemHeight, itemsCount, cyclic, getHeight());
+        }
+
+        @Override
+        void onCurrentItemChanged(int oldItem, int newItem) {
+            notifyChangingListeners(index, oldItem, newItem);
+        }
+
+        @Override
+        void requestLayout() {
+            WheelGroup.this.requestLayout();
+        }
+
+        @Override
+        void invalidate() {
+            WheelGroup.this.invalidate();
+        }
+
+        @Override
+        public void onScrollingStarted() {
+            Object[] listeners = scrollingListeners.array();
+            for (int i = 0; i < listeners.length; i++) {
+                ((OnColumnScrollListener) listeners[i]).onColumnScrollingStarted(WheelGroup.this, index);
+            }
+        }
+
+        @Override
+        public void onItemChanged(int oldItem, int newItem) {
+            valueLayout = null;
+            prefetch(cyclic ? WheelMath.cyclicDistance(oldItem, newItem, itemsCount) : newItem - oldItem,
+                    WheelView.DEF_PREFETCH_WINDOW);
+            notifyChangingListeners(index, oldItem, newItem);
+            invalidate();
+        }
+
+        @Override
+        public void onOffsetChanged() {
+            invalidate();
+        }
+
+        @Override
+        public void onScrollingFinished() {
+            Object[] listeners = scrollingListeners.array();
+            for (int i = 0; i < listeners.length; i++) {
+                ((OnColumnScrollListener) listeners[i]).onColumnScrollingFinished(WheelGroup.this, index);
+            }
+            valueLayout = null;
+        }
+
+        @Override
+        public void requestFrame() {
+            //多列同时滚动时, 一帧之内只执行一次帧回调
+            frameClock.removeFrameCallback(animationCallback);
+            frameClock.postFrameCallback(animationCallback);
+        }
+    }
+
+    /** 所有的列 */
+    private Column[] columns = new Column[0];
+
+    /** 可见的条目数 */
+    private int visibleItems = WheelView.DEF_VISIBLE_ITEMS;
+
+    /** 共享的绘制样式 */
+    private WheelStyle style;
+    /** 条目高度, 来自共享的样式 */
+    private int itemHeight;
+    /** 静态装饰, 整个组件只有一份 */
+    private WheelChrome chrome;
+
+    /** 手势检测器, 所有列共用 */
+    private GestureDetector gestureDetector;
+    /** 当前接收触摸事件的列, 手指按下时确定 */
+    private Column touchColumn;
+
+    /** 驱动滚动动画的帧时钟 */
+    private WheelFrameClock frameClock;
+
+    /** 条目改变监听器集合 */
+    private final ListenerList<OnColumnChangedListener> changingListeners = new ListenerList<OnColumnChangedListener>();
+    /** 滚动监听器集合 */
+    private final ListenerList<OnColumnScrollListener> scrollingListeners = new ListenerList<OnColumnScrollListener>();
+
+    /**
+     * 构造方法
+     */
+    public WheelGroup(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+        initData(context);
+    }
+
+    /**
+     * 构造方法
+     */
+    public WheelGroup(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        initData(context);
+    }
+
+    /**
+     * 构造方法
+     */
+    public WheelGroup(Context context) {
+        super(context);
+        initData(context);
+    }
+
+    /**
+     * 初始化数据
+     *
+     * @param context
+     *            上下文对象
+     */
+    private void initData(Context context) {
+        gestureDetector = new GestureDetector(context, gestureListener);
+        gestureDetector.setIsLongpressEnabled(false);
+        frameClock = new DefaultFrameClock();
+    }
+
+    /**
+     * 设置列数, 新增的列没有适配器, 移除的列不再观察它的适配器
+     *
+     * @param count
+     *            列数
+     */
+    public void setColumnCount(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count < 0");
+        }
+        Column[] newColumns = new Column[count];
+        for (int i = 0; i < count; i++) {
+            newColumns[i] = i < columns.length ? columns[i] : new Column(i);
+        }
+        for (int i = count; i < columns.length; i++) {
+            columns[i].setAdapter(null);
+            if (touchColumn == columns[i]) {
+                touchColumn = null;
+            }
+        }
+        columns = newColumns;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * 获取列数
+     *
+     * @return
+     * 		列数
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * 设置一列的适配器
+     *
+     * @param column
+     *            列的索引
+     * @param adapter
+     *            适配器, 可以为 null
+     */
+    public void setAdapter(int column, WheelAdapter adapter) {
+        columns[column].setAdapter(adapter);
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * 获取一列的适配器
+     *
+     * @param column
+     *            列的索引
+     * @return
+     * 		适配器
+     */
+    public WheelAdapter getAdapter(int column) {
+        return columns[column].adapter;
+    }
+
+    /**
+     * 设置一列是否循环
+     *
+     * @param column
+     *            列的索引
+     * @param cyclic
+     *            是否循环
+     */
+    public void setCyclic(int column, boolean cyclic) {
+        Column c = columns[column];
+        c.cyclic = cyclic;
+        c.valueLayout = null;
+        c.engine.resetOffset();
+        invalidate();
+    }
+
+    /**
+     * 获取一列是否循环
+     *
+     * @param column
+     *            列的索引
+     * @return
+     * 		是否循环
+     */
+    public boolean isCyclic(int column) {
+        return columns[column].cyclic;
+    }
+
+    /**
+     * 设置可见条目数, 所有列相同
+     *
+     * @param count
+     *            可见条目数
+     */
+    public void setVisibleItems(int count) {
+        visibleItems = count;
+        //缓存容量与可见条目数有关, 下次绘制时重新创建缓存
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].itemsCache = null;
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * 获取可见条目数
+     *
+     * @return
+     * 		可见条目数
+     */
+    public int getVisibleItems() {
+        return visibleItems;
+    }
+
+    /**
+     * 获取一列的当前条目
+     *
+     * @param column
+     *            列的索引
+     * @return
+     * 		当前条目
+     */
+    public int getCurrentItem(int column) {
+        return columns[column].engine.getCurrentItem();
+    }
+
+    /**
+     * 设置一列的当前条目, 没有动画
+     *
+     * @param column
+     *            列的索引
+     * @param index
+     *            条目索引
+     */
+    public void setCurrentItem(int column, int index) {
+        setCurrentItem(column, index, false);
+    }
+
+    /**
+     * 设置一列的当前条目, 索引错误时不做任何操作
+     *
+     * @param column
+     *            列的索引
+     * @param index
+     *            条目索引, 可循环时可以超出范围
+     * @param animated
+     *            是否滚动到该条目
+     */
+    public void setCurrentItem(int column, int index, boolean animated) {
+        Column c = columns[column];
+        if (c.adapter == null || c.itemsCount == 0) {
+            return;
+        }
+        if (index < 0 || index >= c.itemsCount) {
+            if (!c.cyclic) {
+                return;
+            }
+            index = WheelMath.normalize(index, c.itemsCount);
+        }
+        int old = c.engine.getCurrentItem();
+        if (index == old) {
+            return;
+        }
+        if (animated) {
+            //与 WheelView 相同, 目标很远时先跳到目标附近, 动画最多经过 MAX_ANIMATED_ITEMS 个条目
+            int start = WheelMath.animationStart(old, index, c.itemsCount, c.cyclic, WheelMath.MAX_ANIMATED_ITEMS);
+            if (start != old) {
+                setCurrentItem(column, start, false);
+            }
+            int distance = c.cyclic ? WheelMath.cyclicDistance(start, index, c.itemsCount) : index - start;
+            c.updateEngineLayout();
+            c.engine.scrollBy(distance, WheelScrollEngine.DEFAULT_SCROLL_DURATION);
+        } else {
+            c.valueLayout = null;
+            c.engine.resetOffset();
+            c.engine.setCurrentItem(index);
+            c.prefetch(c.cyclic ? WheelMath.cyclicDistance(old, index, c.itemsCount) : index - old,
+                    WheelView.DEF_PREFETCH_WINDOW);
+            notifyChangingListeners(column, old, index);
+            invalidate();
+        }
+    }
+
+    /**
+     * 设置驱动滚动动画的帧时钟, 正在执行的动画在新的帧时钟上继续
+     *
+     * @param clock
+     *            帧时钟, 传入 null 恢复使用默认的帧时钟
+     */
+    public void setFrameClock(WheelFrameClock clock) {
+        frameClock.removeFrameCallback(animationCallback);
+        frameClock = clock != null ? clock : new DefaultFrameClock();
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].engine.isAnimating()) {
+                frameClock.postFrameCallback(animationCallback);
+                break;
+            }
+        }
+    }
+
+    /**
+     * 添加条目改变监听器
+     *
+     * @param listener
+     *            the listener
+     */
+    public void addChangingListener(OnColumnChangedListener listener) {
+        changingListeners.add(listener);
+    }
+
+    /**
+     * 移除条目改变监听器
+     *
+     * @param listener
+     *            the listener
+     */
+    public void removeChangingListener(OnColumnChangedListener listener) {
+        changingListeners.remove(listener);
+    }
+
+    /**
+     * 添加滚动监听器
+     *
+     * @param listener
+     *            the listener
+     */
+    public void addScrollingListener(OnColumnScrollListener listener) {
+        scrollingListeners.add(listener);
+    }
+
+    /**
+     * 移除滚动监听器
+     *
+     * @param listener
+     *            the listener
+     */
+    public void removeScrollingListener(OnColumnScrollListener listener) {
+        scrollingListeners.remove(listener);
+    }
+
+    /**
+     * 回调条目改变监听器
+     */
+    private void notifyChangingListeners(int column, int oldValue, int newValue) {
+        Object[] listeners = changingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            ((OnColumnChangedListener) listeners[i]).onColumnChanged(this, column, oldValue, newValue);
+        }
+    }
+
+    /**
+     * 初始化共享的样式和装饰
+     */
+    private void initResourcesIfNecessary() {
+        if (style == null) {
+            style = WheelStyle.obtain(getContext());
+            itemHeight = style.itemHeight;
+        }
+        if (chrome == null) {
+            chrome = new WheelChrome(style);
+        }
+    }
+
+    /*
+     * 测量组件大小, 一次计算所有列需要的宽度
+     * (non-Javadoc)
+     * @see android.view.View#onMeasure(int, int)
+     */
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+        int heightMode = MeasureSpec.getMode(heightMeasureSpec);
+        int widthSize = MeasureSpec.getSize(widthMeasureSpec);
+        int heightSize = MeasureSpec.getSize(heightMeasureSpec);
+
+        initResourcesIfNecessary();
+
+        //每一列需要的宽度 : 最大条目宽度 加上 间距 和 左右填充, 与 WheelView 相同
+        int desired = 0;
+        for (int i = 0; i < columns.length; i++) {
+            Column c = columns[i];
+            c.itemsCount = c.adapter != null ? c.adapter.getItemsCount() : 0;
+            c.desiredWidth = c.getMaxTextWidth(style, visibleItems) + WheelView.ADDITIONAL_ITEMS_SPACE + 2 * WheelView.PADDING;
+            desired += c.desiredWidth;
+        }
+
+        int width;
+        if (widthMode == MeasureSpec.EXACTLY) {
+            width = widthSize;
+        } else {
+            width = Math.max(desired, getSuggestedMinimumWidth());
+            if (widthMode == MeasureSpec.AT_MOST) {
+                width = Math.min(width, widthSize);
+            }
+        }
+
+        int height;
+        if (heightMode == MeasureSpec.EXACTLY) {
+            height = heightSize;
+        } else {
+            height = itemHeight * visibleItems - WheelView.ITEM_OFFSET * 2 - WheelView.ADDITIONAL_ITEM_HEIGHT;
+            height = Math.max(height, getSuggestedMinimumHeight());
+            if (heightMode == MeasureSpec.AT_MOST) {
+                height = Math.min(height, heightSize);
+            }
+        }
+
+        layoutColumns(width);
+        setMeasuredDimension(width, height);
+    }
+
+    /*
+     * 尺寸改变时重新分配列宽
+     * (non-Javadoc)
+     * @see android.view.View#onSizeChanged(int, int, int, int)
+     */
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        initResourcesIfNecessary();
+        layoutColumns(w);
+    }
+
+    /**
+     * 按各列需要的宽度比例分配组件宽度, 设置每列的条目布局宽度
+     *
+     * @param width
+     *            组件宽度
+     */
+    private void layoutColumns(int width) {
+        int desired = 0;
+        for (int i = 0; i < columns.length; i++) {
+            desired += columns[i].desiredWidth;
+        }
+        int left = 0;
+        for (int i = 0; i < columns.length; i++) {
+            Column c = columns[i];
+            int right;
+            if (i == columns.length - 1) {
+                right = width;
+            } else if (desired > 0) {
+                right = left + (int) ((long) c.desiredWidth * width / desired);
+            } else {
+                right = left + width / columns.length;
+            }
+            c.left = left;
+            c.width = right - left;
+            left = right;
+
+            int capacity = (visibleItems + 3) * WheelView.ITEMS_CACHE_SCREENS;
+            if (c.itemsCache == null) {
+                c.itemsCache = new ItemLayoutCache(capacity, style.itemsPaint, WheelView.ADDITIONAL_ITEM_HEIGHT);
+            }
+            int layoutWidth = Math.max(c.width - 2 * WheelView.PADDING, 0);
+            if (c.itemsCache.getWidth() != layoutWidth) {
+                c.valueLayout = null;
+            }
+            c.itemsCache.setup(layoutWidth, Layout.Alignment.ALIGN_CENTER);
+        }
+    }
+
+    /*
+     * 绘制组件, 装饰在整个组件上只绘制一次, 中间依次绘制每一列的条目
+     * (non-Javadoc)
+     * @see android.view.View#onDraw(android.graphics.Canvas)
+     */
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        initResourcesIfNecessary();
+        chrome.drawUnderlay(canvas, getWidth(), getHeight(), itemHeight, visibleItems);
+
+        //画笔由多个组件共享, 每次绘制之前重新设置状态
+        int[] drawableState = getDrawableState();
+        style.itemsPaint.drawableState = drawableState;
+        style.valuePaint.drawableState = drawableState;
+
+        for (int i = 0; i < columns.length; i++) {
+            Column c = columns[i];
+            if (c.itemsCache == null || c.itemsCache.getWidth() <= 0 || c.itemsCount == 0) {
+                continue;
+            }
+            canvas.save();
+            canvas.translate(c.left + WheelView.PADDING, -WheelView.ITEM_OFFSET);
+            drawItems(canvas, c);
+            drawValue(canvas, c);
+            canvas.restore();
+        }
+
+        chrome.drawOverlay(canvas);
+    }
+
+    /**
+     * 绘制一列的普通条目, 没有滚动时跳过当前条目
+     */
+    private void drawItems(Canvas canvas, Column c) {
+        canvas.save();
+        int addItems = visibleItems / 2 + 1;
+        canvas.translate(0, -itemHeight + c.engine.getOffset());
+        int currentItem = c.engine.getCurrentItem();
+        boolean scrolling = c.engine.isScrolling();
+        int rowCount = addItems * 2 + 1;
+        if (c.rowWindow == null || c.rowWindow.size() != rowCount) {
+            c.rowWindow = new VisibleRowWindow(rowCount);
+        }
+        c.rowWindow.moveTo(currentItem, c.itemsCache, c.itemsCount, c.cyclic);
+        for (int row = 0; row < rowCount; row++) {
+            int i = currentItem - addItems + row;
+            int realIndex = c.getRealIndex(i, c.cyclic);
+            if (realIndex >= 0 && (scrolling || i != currentItem)) {
+                StaticLayout layout;
+                if (c.rowWindow.isFilled(row)) {
+                    layout = c.rowWindow.get(row);
+                } else {
+                    layout = c.getItemLayout(realIndex);
+                    c.rowWindow.set(row, layout);
+                }
+                if (layout != null) {
+                    layout.draw(canvas);
+                }
+            }
+            canvas.translate(0, itemHeight);
+        }
+        canvas.restore();
+    }
+
+    /**
+     * 绘制一列的选中条目, 滚动过程中不绘制
+     */
+    private void drawValue(Canvas canvas, Column c) {
+        if (c.engine.isScrolling()) {
+            return;
+        }
+        if (c.valueLayout == null) {
+            String text = c.adapter.getItem(c.engine.getCurrentItem());
+            c.valueLayout = new StaticLayout(text != null ? text : "", style.valuePaint, c.itemsCache.getWidth(),
+                    Layout.Alignment.ALIGN_CENTER, 1, WheelView.ADDITIONAL_ITEM_HEIGHT, false);
+        }
+        canvas.save();
+        canvas.translate(0, visibleItems / 2 * itemHeight + c.engine.getOffset());
+        c.valueLayout.draw(canvas);
+        canvas.restore();
+    }
+
+    /*
+     * 从窗口中移除时释放装饰位图, 再次显示时重新创建
+     * (non-Javadoc)
+     * @see android.view.View#onDetachedFromWindow()
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (chrome != null) {
+            chrome.recycle();
+        }
+    }
+
+    /**
+     * 获取 x 坐标所在的列
+     *
+     * @return 所在的列, 没有列或者该列没有条目时返回 null
+     */
+    private Column columnAt(int x) {
+        for (int i = 0; i < columns.length; i++) {
+            Column c = columns[i];
+            if (x >= c.left && x < c.left + c.width) {
+                return c.itemsCount > 0 ? c : null;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * 触摸事件, 手指按下时确定接收事件的列, 直到下一次按下之前的事件都交给该列
+     * (non-Javadoc)
+     * @see android.view.View#onTouchEvent(android.view.MotionEvent)
+     */
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            touchColumn = columnAt((int) event.getX());
+        }
+        if (touchColumn == null) {
+            return true;
+        }
+        touchColumn.updateEngineLayout();
+        if (!gestureDetector.onTouchEvent(event) && event.getAction() == MotionEvent.ACTION_UP) {
+            //没有急冲, 调整到最近的条目
+            touchColumn.engine.release();
+        }
+        return true;
+    }
+
+    /**
+     * 手势监听器, 操作当前接收触摸事件的列
+     */
+    private final SimpleOnGestureListener gestureListener = new SimpleOnGestureListener() {
+        public boolean onDown(MotionEvent e) {
+            return touchColumn.engine.hold();
+        }
+
+        public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+            touchColumn.engine.drag((int) -distanceY);
+            return true;
+        }
+
+        public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
+            //与 WheelView 相同, 以手指速度的一半急冲
+            touchColumn.engine.fling(velocityY / 2);
+            return true;
+        }
+    };
+
+    /**
+     * 动画帧回调, 推进所有正在动画的列, 这一帧的所有移动只重绘一次
+     */
+    private final WheelFrameClock.FrameCallback animationCallback = new WheelFrameClock.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            for (int i = 0; i < columns.length; i++) {
+                Column c = columns[i];
+                if (c.engine.isAnimating()) {
+                    c.updateEngineLayout();
+                    c.engine.doFrame(frameTimeNanos);
+                }
+            }
+        }
+    };
+}
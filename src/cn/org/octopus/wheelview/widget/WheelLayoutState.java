@@ -0,0 +1,19 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * WheelView 为一个适配器创建的布局状态
+ * 包括 条目布局缓存 和 条目宽度索引, 切换回该适配器时可以直接恢复, 不需要重新测量
+ * 只能恢复到创建它的 WheelView 中
+ */
+final class WheelLayoutState {
+
+    /** 条目布局缓存 */
+    final ItemLayoutCache itemsCache;
+    /** 条目宽度索引 */
+    final ItemWidthIndex widthIndex;
+
+    WheelLayoutState(ItemLayoutCache itemsCache, ItemWidthIndex widthIndex) {
+        this.itemsCache = itemsCache;
+        this.widthIndex = widthIndex;
+    }
+}
@@ -0,0 +1,77 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * WheelView 位置计算工具
+ * 所有计算都是常数时间, 与索引的大小无关
+ */
+final class WheelMath {
+
+    /** 带动画滚动时最多经过的条目数, 目标更远时先直接跳到目标附近, 再滚动这些条目 */
+    static final int MAX_ANIMATED_ITEMS = 10;
+
+    private WheelMath() {
+    }
+
+    /**
+     * 将可循环的索引转换到 [0, count) 范围内
+     * 
+     * @param index
+     *            索引, 可以是任意值
+     * @param count
+     *            条目个数, 必须大于 0
+     * @return 
+     * 		[0, count) 范围内的索引
+     */
+    static int normalize(int index, int count) {
+        int result = index % count;
+        return result < 0 ? result + count : result;
+    }
+
+    /**
+     * 计算可循环时从 from 到 to 的最短距离
+     * 
+     * @param from
+     *            起始索引, [0, count) 范围内
+     * @param to
+     *            目标索引, [0, count) 范围内
+     * @param count
+     *            条目个数, 必须大于 0
+     * @return 
+     * 		带方向的距离, 正数向后, 负数向前
+     */
+    static int cyclicDistance(int from, int to, int count) {
+        int distance = to - from;
+        if (distance > count / 2) {
+            distance -= count;
+        } else if (distance < -count / 2) {
+            distance += count;
+        }
+        return distance;
+    }
+
+    /**
+     * 计算带动画设置当前条目时动画开始的条目
+     * 目标很远时先直接跳到距离目标 maxItems 个条目的位置, 动画最多经过 maxItems 个条目, 耗时与距离无关
+     * 
+     * @param current
+     *            当前条目, [0, count) 范围内
+     * @param target
+     *            目标条目, [0, count) 范围内
+     * @param count
+     *            条目个数, 必须大于 0
+     * @param cyclic
+     *            是否可以循环, 可循环时沿较近的方向滚动
+     * @param maxItems
+     *            动画最多经过的条目数, 必须大于 0
+     * @return 
+     * 		动画开始的条目, 距离目标不超过 maxItems 时就是当前条目
+     */
+    static int animationStart(int current, int target, int count, boolean cyclic, int maxItems) {
+        int distance = cyclic ? cyclicDistance(current, target, count) : target - current;
+        if (Math.abs(distance) <= maxItems) {
+            return current;
+        }
+        int start = distance > 0 ? target - maxItems : target + maxItems;
+        return cyclic ? normalize(start, count) : start;
+    }
+}
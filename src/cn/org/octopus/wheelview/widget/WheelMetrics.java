@@ -0,0 +1,384 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * WheelView 的性能统计
+ * -- 调用 WheelView.setMetricsEnabled(true) 之后开始统计, 没有开启时 WheelView 不会创建该对象
+ * -- 计数: 创建的条目布局个数, 向适配器获取条目的次数, 绘制的帧数, 掉帧数, 滚动次数
+ * -- 耗时直方图: 每帧绘制耗时, 创建布局耗时, 滚动耗时, 单位微秒; 每次滚动的动画帧数
+ * -- 直方图按 2 的幂分桶, 记录一个值只需要几次整数运算, 不会创建对象
+ * -- 只能在 UI 线程中更新, 交给其他线程之前使用 snapshot() 复制一份
+ */
+public final class WheelMetrics {
+
+    /**
+     * 性能统计监听器
+     */
+    public interface OnMetricsListener {
+        /**
+         * 每次滚动结束之后回调
+         *
+         * @param wheel
+         *            the wheel view
+         * @param metrics
+         *            从开启统计 (或者上次重置) 到现在的统计结果副本
+         */
+        void onScrollingMetrics(WheelView wheel, WheelMetrics metrics);
+    }
+
+    /**
+     * 按 2 的幂分桶的直方图
+     * 第 0 个桶记录值 0, 第 i 个桶记录 [2^(i-1), 2^i) 范围内的值, 超出范围的值记录在最后一个桶
+     */
+    public static final class Histogram {
+
+        /** 桶的个数, 最后一个桶的下限约为 4.2 秒 (单位微秒时) */
+        public static final int BUCKET_COUNT = 24;
+
+        private final long[] buckets = new long[BUCKET_COUNT];
+        private long count;
+        private long total;
+        private long max;
+
+        Histogram() {
+        }
+
+        /**
+         * 记录一个值
+         *
+         * @param value
+         *            要记录的值, 小于 0 时按 0 记录
+         */
+        void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+            int bucket = Math.min(64 - Long.numberOfLeadingZeros(value), BUCKET_COUNT - 1);
+            buckets[bucket]++;
+            count++;
+            total += value;
+            if (value > max) {
+                max = value;
+            }
+        }
+
+        /**
+         * 获取记录的值的个数
+         *
+         * @return 值的个数
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * 获取记录的值的总和
+         *
+         * @return 总和
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * 获取记录的最大值
+         *
+         * @return 最大值
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * 获取记录的平均值
+         *
+         * @return 平均值, 没有记录时返回 0
+         */
+        public double getMean() {
+            return count > 0 ? (double) total / count : 0;
+        }
+
+        /**
+         * 获取一个桶中记录的值的个数
+         *
+         * @param bucket
+         *            桶的索引, [0, BUCKET_COUNT)
+         * @return 值的个数
+         */
+        public long getBucketCount(int bucket) {
+            return buckets[bucket];
+        }
+
+        /**
+         * 获取一个桶的上限 (不包含)
+         *
+         * @param bucket
+         *            桶的索引, [0, BUCKET_COUNT)
+         * @return 桶的上限, 最后一个桶返回 Long.MAX_VALUE
+         */
+        public static long getBucketUpperBound(int bucket) {
+            return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << bucket;
+        }
+
+        /**
+         * 估算百分位数, 返回该百分位所在桶的上限, 不超过记录的最大值
+         *
+         * @param percentile
+         *            百分位, [0, 100]
+         * @return 估算值, 没有记录时返回 0
+         */
+        public long getPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets[i];
+                if (seen >= target && seen > 0) {
+                    return Math.min(getBucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * 复制直方图
+         */
+        Histogram copy() {
+            Histogram copy = new Histogram();
+            System.arraycopy(buckets, 0, copy.buckets, 0, BUCKET_COUNT);
+            copy.count = count;
+            copy.total = total;
+            copy.max = max;
+            return copy;
+        }
+    }
+
+    /** 不知道屏幕刷新率时计算掉帧使用的帧间隔, 按 60Hz 计算 */
+    static final long DEFAULT_FRAME_INTERVAL_NANOS = 16666667L;
+
+    /** 计算掉帧使用的帧间隔, 由 WheelView 按屏幕刷新率设置 */
+    private long frameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+
+    /** 创建的条目布局个数 */
+    private long layoutsCreated;
+    /** 向适配器获取条目的次数 */
+    private long itemRequests;
+    /** 掉帧数 */
+    private long droppedFrames;
+    /** 滚动次数 */
+    private long scrollings;
+
+    /** 每帧绘制耗时, 单位微秒, 绘制的帧数就是该直方图的记录个数 */
+    private final Histogram drawTime;
+    /** 创建布局耗时, 单位微秒 */
+    private final Histogram layoutTime;
+    /** 每次推进滚动位置 (一次拖动或者一个动画帧) 的耗时, 单位微秒 */
+    private final Histogram scrollTime;
+    /** 每次滚动的动画帧数 */
+    private final Histogram framesPerScrolling;
+
+    /** 当前这次滚动的动画帧数 */
+    private int scrollingFrames;
+    /** 上一个动画帧的时间, 0 表示这次滚动还没有动画帧 */
+    private long lastFrameTimeNanos;
+
+    WheelMetrics() {
+        drawTime = new Histogram();
+        layoutTime = new Histogram();
+        scrollTime = new Histogram();
+        framesPerScrolling = new Histogram();
+    }
+
+    private WheelMetrics(WheelMetrics source) {
+        layoutsCreated = source.layoutsCreated;
+        itemRequests = source.itemRequests;
+        droppedFrames = source.droppedFrames;
+        scrollings = source.scrollings;
+        frameIntervalNanos = source.frameIntervalNanos;
+        drawTime = source.drawTime.copy();
+        layoutTime = source.layoutTime.copy();
+        scrollTime = source.scrollTime.copy();
+        framesPerScrolling = source.framesPerScrolling.copy();
+    }
+
+    /**
+     * 复制当前的统计结果
+     *
+     * @return 统计结果副本
+     */
+    public WheelMetrics snapshot() {
+        return new WheelMetrics(this);
+    }
+
+    /**
+     * 获取创建的条目布局个数, 包括普通条目和选中条目
+     *
+     * @return 布局个数
+     */
+    public long getLayoutsCreated() {
+        return layoutsCreated;
+    }
+
+    /**
+     * 获取向适配器获取条目的次数
+     *
+     * @return 次数
+     */
+    public long getItemRequests() {
+        return itemRequests;
+    }
+
+    /**
+     * 获取绘制的帧数
+     *
+     * @return 帧数
+     */
+    public long getFramesDrawn() {
+        return drawTime.getCount();
+    }
+
+    /**
+     * 获取滚动动画中的掉帧数, 根据相邻两个动画帧的时间间隔计算
+     *
+     * @return 掉帧数
+     */
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * 获取计算掉帧使用的帧间隔
+     *
+     * @return 帧间隔, 单位纳秒
+     */
+    public long getFrameIntervalNanos() {
+        return frameIntervalNanos;
+    }
+
+    /**
+     * 获取滚动次数
+     *
+     * @return 滚动次数
+     */
+    public long getScrollings() {
+        return scrollings;
+    }
+
+    /**
+     * 获取每帧绘制耗时直方图, 单位微秒
+     *
+     * @return 直方图
+     */
+    public Histogram getDrawTime() {
+        return drawTime;
+    }
+
+    /**
+     * 获取创建布局耗时直方图, 单位微秒
+     *
+     * @return 直方图
+     */
+    public Histogram getLayoutTime() {
+        return layoutTime;
+    }
+
+    /**
+     * 获取推进滚动位置的耗时直方图, 单位微秒
+     * 每次拖动和每个动画帧记录一次, 包括条目改变时的回调和预加载
+     *
+     * @return 直方图
+     */
+    public Histogram getScrollTime() {
+        return scrollTime;
+    }
+
+    /**
+     * 获取每次滚动的动画帧数直方图
+     *
+     * @return 直方图
+     */
+    public Histogram getFramesPerScrolling() {
+        return framesPerScrolling;
+    }
+
+    /**
+     * 记录创建了一个条目布局
+     */
+    void recordLayoutCreated() {
+        layoutsCreated++;
+    }
+
+    /**
+     * 记录向适配器获取了 count 个条目
+     */
+    void recordItemRequests(int count) {
+        itemRequests += count;
+    }
+
+    /**
+     * 记录一帧的绘制耗时
+     */
+    void recordDraw(long nanos) {
+        drawTime.record(nanos / 1000);
+    }
+
+    /**
+     * 记录一次创建布局的耗时
+     */
+    void recordLayout(long nanos) {
+        layoutTime.record(nanos / 1000);
+    }
+
+    /**
+     * 记录一次拖动或者一个动画帧推进滚动位置的耗时
+     */
+    void recordScroll(long nanos) {
+        scrollTime.record(nanos / 1000);
+    }
+
+    /**
+     * 设置计算掉帧使用的帧间隔, 例如 120Hz 屏幕为 8333333 纳秒
+     *
+     * @param frameIntervalNanos
+     *            帧间隔, 单位纳秒, 不大于 0 表示不知道屏幕刷新率, 按 60Hz 计算
+     */
+    void setFrameInterval(long frameIntervalNanos) {
+        this.frameIntervalNanos = frameIntervalNanos > 0 ? frameIntervalNanos : DEFAULT_FRAME_INTERVAL_NANOS;
+    }
+
+    /**
+     * 开始滚动
+     */
+    void onScrollingStarted() {
+        scrollingFrames = 0;
+        lastFrameTimeNanos = 0;
+    }
+
+    /**
+     * 记录一个动画帧, 与上一帧间隔超过 1.5 个帧间隔时, 按间隔计算掉帧数
+     *
+     * @param frameTimeNanos
+     *            帧时间
+     */
+    void recordAnimationFrame(long frameTimeNanos) {
+        scrollingFrames++;
+        if (lastFrameTimeNanos != 0) {
+            long gap = frameTimeNanos - lastFrameTimeNanos;
+            if (gap > frameIntervalNanos * 3 / 2) {
+                droppedFrames += (gap + frameIntervalNanos / 2) / frameIntervalNanos - 1;
+            }
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+    }
+
+    /**
+     * 滚动结束
+     */
+    void onScrollingFinished() {
+        scrollings++;
+        framesPerScrolling.record(scrollingFrames);
+        scrollingFrames = 0;
+        lastFrameTimeNanos = 0;
+    }
+}
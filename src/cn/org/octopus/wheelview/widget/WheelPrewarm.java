@@ -0,0 +1,162 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.concurrent.Executor;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Layout;
+import android.text.TextPaint;
+
+/**
+ * 预热的 WheelView 资源
+ * -- 包括 共享的样式 (画笔, 装饰图片, 条目高度); 指定适配器时还包括条目宽度和首屏的条目布局
+ * -- 可以在显示 WheelView 之前 (例如 打开对话框之前) 在后台线程中创建, 显示时调用 WheelView.applyPrewarm 使用,
+ *    第一帧不再需要加载图片, 创建画笔 和 测量条目
+ * -- 测量结果由使用它的 WheelView 独占, 每个预热结果只能使用一次
+ */
+public final class WheelPrewarm {
+
+    /**
+     * 预热完成监听器
+     */
+    public interface OnPrewarmedListener {
+        /**
+         * 预热完成之后在 UI 线程中回调
+         *
+         * @param prewarm
+         *            预热的资源
+         */
+        void onPrewarmed(WheelPrewarm prewarm);
+    }
+
+    /** 共享的样式 */
+    final WheelStyle style;
+    /** 适配器的测量结果, 没有指定适配器时为 null */
+    final MeasuredItems measured;
+
+    /** 是否已经被使用 */
+    private boolean applied;
+
+    private WheelPrewarm(WheelStyle style, MeasuredItems measured) {
+        this.style = style;
+        this.measured = measured;
+    }
+
+    /**
+     * 预热样式, 不测量条目
+     *
+     * @param context
+     *            上下文对象
+     * @return
+     * 		预热的资源
+     */
+    public static WheelPrewarm prepare(Context context) {
+        return prepare(context, null, 0, 0, false, null);
+    }
+
+    /**
+     * 预热资源, 可以在后台线程中调用, 适配器需要支持在后台线程中读取, 可观察的适配器不会预先测量
+     * 在后台线程中调用时, 需要通过 Handler 等方式把结果交给 UI 线程, 不能在两个线程中同时使用
+     *
+     * @param context
+     *            上下文对象
+     * @param adapter
+     *            要显示的适配器, 为 null 时不测量条目
+     * @param visibleItems
+     *            WheelView 的可见条目数
+     * @param currentItem
+     *            WheelView 显示时的当前条目
+     * @param cyclic
+     *            WheelView 是否循环
+     * @param label
+     *            WheelView 的标签, 可以为 null
+     * @return
+     * 		预热的资源
+     */
+    public static WheelPrewarm prepare(Context context, WheelAdapter adapter, int visibleItems, int currentItem,
+            boolean cyclic, String label) {
+        WheelStyle style = WheelStyle.obtain(context);
+
+        MeasuredItems measured = null;
+        //可观察的适配器 (包括异步适配器) 只能在 UI 线程中读取, 不预先测量
+        if (adapter != null && !(adapter instanceof ObservableWheelAdapter) && adapter.getItemsCount() > 0) {
+            int[] indices = MeasuredItems.collectIndices(currentItem, visibleItems, adapter.getItemsCount(), cyclic);
+            Layout.Alignment alignment = label != null && label.length() > 0 ? Layout.Alignment.ALIGN_OPPOSITE
+                    : Layout.Alignment.ALIGN_CENTER;
+            //共享的画笔可能正在 UI 线程中使用, 测量使用画笔的副本
+            measured = MeasuredItems.measure(adapter, 0, new TextPaint(style.itemsPaint),
+                    new TextPaint(style.valuePaint), WheelView.ADDITIONAL_ITEMS_SPACE,
+                    WheelView.ADDITIONAL_ITEM_HEIGHT, alignment, indices, currentItem);
+        }
+        return new WheelPrewarm(style, measured);
+    }
+
+    /**
+     * 在线程池中预热资源, 完成之后在 UI 线程中回调监听器
+     *
+     * @param executor
+     *            执行预热的线程池
+     * @param context
+     *            上下文对象
+     * @param adapter
+     *            要显示的适配器, 为 null 时不测量条目
+     * @param visibleItems
+     *            WheelView 的可见条目数
+     * @param currentItem
+     *            WheelView 显示时的当前条目
+     * @param cyclic
+     *            WheelView 是否循环
+     * @param label
+     *            WheelView 的标签, 可以为 null
+     * @param listener
+     *            预热完成监听器
+     */
+    public static void prepareAsync(Executor executor, final Context context, final WheelAdapter adapter,
+            final int visibleItems, final int currentItem, final boolean cyclic, final String label,
+            final OnPrewarmedListener listener) {
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final WheelPrewarm prewarm = prepare(context, adapter, visibleItems, currentItem, cyclic, label);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onPrewarmed(prewarm);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 获取预热的适配器
+     *
+     * @return
+     * 		预热时测量的适配器, 没有测量时返回 null
+     */
+    public WheelAdapter getAdapter() {
+        return measured != null ? measured.adapter : null;
+    }
+
+    /**
+     * 是否已经被 WheelView 使用
+     *
+     * @return
+     * 		已经使用返回 true
+     */
+    public boolean isApplied() {
+        return applied;
+    }
+
+    /**
+     * 标记为已经使用
+     */
+    void markApplied() {
+        if (applied) {
+            throw new IllegalStateException("prewarm already applied");
+        }
+        applied = true;
+    }
+}
@@ -0,0 +1,654 @@
+package cn.org.octopus.wheelview.widget;
+
+/**
+ * WheelView 的滚动引擎
+ * -- 保存滚动位置 (当前条目 和 不足一个条目高度的偏移), 实现拖动, 急冲, 滚动动画 和 调整动画
+ * -- 急冲有两种方式: 匀减速停止之后再调整到最近的条目; 或者在急冲开始时预测停止的条目,
+ *    直接减速停在该条目上, 不需要再执行调整动画
+ * -- 急冲的距离与 android.widget.Scroller 的样条曲线相同, 每次急冲按该距离计算匀减速的减速度
+ * -- 不依赖 Android 框架, 帧由宿主驱动, 动画从第一帧 (或者 Clock 提供的时间) 开始计时,
+ *    可以在普通 JVM 中模拟滚动
+ * -- 宿主 (WheelView) 在调用引擎之前设置条目高度, 条目个数 等布局参数,
+ *    通过 Callback 接收条目改变, 重绘, 请求下一帧 等通知
+ * -- 非线程安全, 只能在一个线程 (一般是 UI 线程) 中使用
+ *
+ * 偏移的方向: 偏移为正时条目向下移动, 显示当前条目之前的条目
+ */
+public class WheelScrollEngine {
+
+    /**
+     * 时钟, 提供动画的开始时间, 没有时钟时动画从第一帧开始计时
+     */
+    public interface Clock {
+        /**
+         * 获取当前时间, 与帧时间使用相同的时间基准
+         *
+         * @return 当前时间, 单位纳秒
+         */
+        long nanoTime();
+    }
+
+    /**
+     * 滚动动画的插值器
+     */
+    public interface Interpolator {
+        /**
+         * 根据动画进度计算滚动进度
+         *
+         * @param input
+         *            动画进度, [0, 1]
+         * @return 滚动进度, 0 是起点, 1 是终点
+         */
+        float getInterpolation(float input);
+    }
+
+    /**
+     * 引擎回调
+     */
+    public interface Callback {
+        /**
+         * 开始滚动
+         */
+        void onScrollingStarted();
+
+        /**
+         * 滚动过程中当前条目改变了, 回调时偏移已经更新
+         *
+         * @param oldItem
+         *            旧的条目
+         * @param newItem
+         *            新的条目
+         */
+        void onItemChanged(int oldItem, int newItem);
+
+        /**
+         * 偏移改变了, 需要重绘
+         */
+        void onOffsetChanged();
+
+        /**
+         * 滚动结束, 回调时 isScrolling() 仍然返回 true
+         */
+        void onScrollingFinished();
+
+        /**
+         * 请求在下一帧调用 doFrame, 一帧之内多次请求只需要调用一次
+         */
+        void requestFrame();
+    }
+
+    /** 默认的滚动动画时间, 单位毫秒 */
+    public static final int DEFAULT_SCROLL_DURATION = 400;
+
+    /** 默认的急冲摩擦系数, 与 ViewConfiguration.getScrollFriction() 相同 */
+    public static final float DEFAULT_FRICTION = 0.015f;
+
+    /** 样条曲线的拐点, 与 android.widget.Scroller 相同 */
+    private static final float INFLEXION = 0.35f;
+    /** 样条曲线的减速率, 与 android.widget.Scroller 相同 */
+    private static final float DECELERATION_RATE = (float) (Math.log(0.78) / Math.log(0.9));
+
+    /** 最小的滚动值, 距离终点小于该值时结束动画 */
+    private static final int MIN_DELTA_FOR_SCROLLING = 1;
+
+    /** 使用 System.nanoTime() 的时钟 */
+    public static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    /** 默认的插值器, 先加速后减速, 与 android.widget.Scroller 的默认插值器相同 */
+    public static final Interpolator VISCOUS_FLUID = new Interpolator() {
+        private static final float SCALE = 8.0f;
+        private final float normalize = 1.0f / viscousFluid(1.0f);
+
+        @Override
+        public float getInterpolation(float input) {
+            return viscousFluid(input) * normalize;
+        }
+
+        private float viscousFluid(float x) {
+            x *= SCALE;
+            if (x < 1.0f) {
+                return x - (1.0f - (float) Math.exp(-x));
+            }
+            float start = 0.36787944117f;
+            x = 1.0f - (float) Math.exp(1.0f - x);
+            return start + x * (1.0f - start);
+        }
+    };
+
+    // 动画类型
+    /** 没有动画 */
+    private static final int ANIMATION_NONE = 0;
+    /** 滚动动画, 结束后执行调整动画 */
+    private static final int ANIMATION_SCROLL = 1;
+    /** 调整动画, 结束后结束滚动 */
+    private static final int ANIMATION_JUSTIFY = 2;
+
+    // 运动方式
+    /** 按插值器在给定时间内移动给定距离 */
+    private static final int MOTION_TWEEN = 0;
+    /** 以初速度匀减速运动 */
+    private static final int MOTION_FLING = 1;
+
+    private final Callback callback;
+    private final Clock clock;
+
+    private Interpolator interpolator = VISCOUS_FLUID;
+    /** 摩擦系数乘以物理系数, 决定急冲的距离, 单位 像素 / 秒^2 */
+    private float flingCoefficient = getFlingCoefficient(DEFAULT_FRICTION, 1.0f);
+    /** 急冲的最大初速度, 单位 像素 / 秒 */
+    private float maxVelocity = Float.MAX_VALUE;
+    /** 急冲时是否预测停止的条目, 直接停在该条目上 */
+    private boolean snapToItem;
+
+    // 布局参数, 由宿主设置
+    private int itemHeight;
+    private int itemsCount;
+    private boolean cyclic;
+    /** 可见区域高度, 用于限制偏移, 0 表示不限制 */
+    private int viewportHeight;
+
+    // 滚动位置
+    /** 当前条目 */
+    private int currentItem;
+    /** 不足一个条目高度的偏移 */
+    private int offset;
+    /** 是否在滚动 */
+    private boolean scrolling;
+
+    // 动画状态, 位移的方向与偏移相同, 起点为 0
+    private int animationMode = ANIMATION_NONE;
+    private int motionType;
+    private long startNanos;
+    /** 是否等待第一帧确定开始时间 */
+    private boolean startPending;
+    private long durationNanos;
+    /** 位移的终点 */
+    private int finalY;
+    /** 上一帧的位移 */
+    private int lastY;
+    /** 急冲的初速度, 单位 像素 / 秒 */
+    private float velocity;
+    /** 急冲的减速度, 单位 像素 / 秒^2 */
+    private float deceleration;
+    /** 急冲位移的范围 */
+    private int minY;
+    private int maxY;
+
+    /**
+     * 构造方法, 动画从开始之后的第一帧开始计时, 帧时间可以使用任意的时间基准
+     *
+     * @param callback
+     *            引擎回调
+     */
+    public WheelScrollEngine(Callback callback) {
+        this(callback, null);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param callback
+     *            引擎回调
+     * @param clock
+     *            时钟, 与帧时间使用相同的时间基准; 为 null 时动画从第一帧开始计时
+     */
+    public WheelScrollEngine(Callback callback, Clock clock) {
+        this.callback = callback;
+        this.clock = clock;
+    }
+
+    /**
+     * 设置布局参数, 在拖动, 急冲, 滚动 和 推进帧之前调用
+     *
+     * @param itemHeight
+     *            条目高度
+     * @param itemsCount
+     *            条目个数
+     * @param cyclic
+     *            是否可以循环
+     * @param viewportHeight
+     *            可见区域高度, 0 表示不限制偏移
+     */
+    public void setLayout(int itemHeight, int itemsCount, boolean cyclic, int viewportHeight) {
+        this.itemHeight = itemHeight;
+        this.itemsCount = itemsCount;
+        this.cyclic = cyclic;
+        this.viewportHeight = viewportHeight;
+    }
+
+    /**
+     * 设置滚动动画的插值器, 正在执行的动画会被停止
+     *
+     * @param interpolator
+     *            插值器, 为 null 时使用默认插值器
+     */
+    public void setInterpolator(Interpolator interpolator) {
+        stopMotion();
+        this.interpolator = interpolator != null ? interpolator : VISCOUS_FLUID;
+    }
+
+    /**
+     * 设置急冲的摩擦系数, 摩擦系数越大, 急冲的距离越短
+     *
+     * @param friction
+     *            摩擦系数, 必须大于 0, 默认为 DEFAULT_FRICTION
+     * @param density
+     *            屏幕密度, 160dpi 为 1, 必须大于 0
+     */
+    public void setFriction(float friction, float density) {
+        if (friction <= 0 || density <= 0) {
+            throw new IllegalArgumentException("friction <= 0 || density <= 0");
+        }
+        flingCoefficient = getFlingCoefficient(friction, density);
+    }
+
+    /**
+     * 设置急冲的最大初速度, 超过该速度的急冲按该速度计算
+     *
+     * @param maxVelocity
+     *            最大初速度, 单位 像素 / 秒, 必须大于 0
+     */
+    public void setMaxVelocity(float maxVelocity) {
+        if (maxVelocity <= 0) {
+            throw new IllegalArgumentException("maxVelocity <= 0");
+        }
+        this.maxVelocity = maxVelocity;
+    }
+
+    /**
+     * 设置急冲时是否预测停止的条目
+     * 开启后急冲开始时计算自然停止的位置, 取最近的条目作为目标, 调整初速度使减速之后正好停在目标条目上,
+     * 急冲结束时已经对齐, 不需要再执行调整动画
+     *
+     * @param snapToItem
+     *            是否预测停止的条目
+     */
+    public void setSnapToItem(boolean snapToItem) {
+        this.snapToItem = snapToItem;
+    }
+
+    /**
+     * 计算以给定初速度急冲的距离, 与 android.widget.Scroller 的样条曲线相同
+     *
+     * @param velocity
+     *            初速度, 单位 像素 / 秒, 超过最大初速度时按最大初速度计算
+     * @return 急冲的距离, 方向与初速度相同, 单位像素
+     */
+    public double getFlingDistance(float velocity) {
+        velocity = Math.max(-maxVelocity, Math.min(maxVelocity, velocity));
+        if (velocity == 0) {
+            return 0;
+        }
+        double l = Math.log(INFLEXION * Math.abs(velocity) / flingCoefficient);
+        double distance = flingCoefficient * Math.exp(DECELERATION_RATE / (DECELERATION_RATE - 1.0) * l);
+        return Math.signum(velocity) * distance;
+    }
+
+    /**
+     * 根据摩擦系数和屏幕密度计算急冲系数, 与 android.widget.Scroller 的计算方法相同
+     */
+    private static float getFlingCoefficient(float friction, float density) {
+        //重力加速度 (米 / 秒^2) * 每米的英寸数 * 每英寸的像素数 * 0.84 * 摩擦系数
+        return 9.80665f * 39.37f * 160f * density * 0.84f * friction;
+    }
+
+    /**
+     * 获取当前条目
+     *
+     * @return 当前条目索引
+     */
+    public int getCurrentItem() {
+        return currentItem;
+    }
+
+    /**
+     * 设置当前条目, 不改变偏移, 也不回调
+     *
+     * @param item
+     *            条目索引
+     */
+    public void setCurrentItem(int item) {
+        currentItem = item;
+    }
+
+    /**
+     * 获取偏移
+     *
+     * @return 不足一个条目高度的偏移, 单位像素
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * 将偏移设置为 0, 不回调
+     */
+    public void resetOffset() {
+        offset = 0;
+    }
+
+    /**
+     * 是否在滚动
+     *
+     * @return 滚动中返回 true
+     */
+    public boolean isScrolling() {
+        return scrolling;
+    }
+
+    /**
+     * 是否有正在执行的动画
+     *
+     * @return 有动画返回 true
+     */
+    public boolean isAnimating() {
+        return animationMode != ANIMATION_NONE;
+    }
+
+    /**
+     * 按下时调用, 停止正在执行的动画, 滚动状态保持不变
+     *
+     * @return 正在滚动返回 true
+     */
+    public boolean hold() {
+        if (scrolling) {
+            stopMotion();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 拖动
+     *
+     * @param delta
+     *            偏移的改变值, 单位像素
+     */
+    public void drag(int delta) {
+        startScrolling();
+        applyDelta(delta);
+    }
+
+    /**
+     * 松开手指, 没有急冲时调用, 调整到最近的条目
+     */
+    public void release() {
+        if (animationMode == ANIMATION_NONE) {
+            justify();
+        }
+    }
+
+    /**
+     * 以初速度急冲, 停止之后调整到最近的条目; 预测停止条目时直接停在目标条目上
+     *
+     * @param velocity
+     *            偏移方向的初速度, 单位 像素 / 秒
+     */
+    public void fling(float velocity) {
+        stopMotion();
+        startScrolling();
+        if (itemHeight <= 0 || velocity == 0) {
+            justify();
+            return;
+        }
+
+        //当前位置相对第一个条目的距离, 条目数很大时使用 long 计算
+        long position = (long) currentItem * itemHeight - offset;
+        if (cyclic) {
+            minY = -Integer.MAX_VALUE;
+            maxY = Integer.MAX_VALUE;
+        } else {
+            minY = clampToInt(-((long) (itemsCount - 1) * itemHeight - position));
+            maxY = clampToInt(position);
+        }
+
+        velocity = Math.max(-maxVelocity, Math.min(maxVelocity, velocity));
+        //自然停止的位移与 Scroller 相同, 匀减速走完该位移的减速度 a = v^2 / 2d
+        double distance = getFlingDistance(velocity);
+        if (Math.abs(distance) < MIN_DELTA_FOR_SCROLLING) {
+            justify();
+            return;
+        }
+        deceleration = (float) (velocity * velocity / (2 * Math.abs(distance)));
+
+        if (snapToItem) {
+            //取离自然停止位置最近的条目, 位移之后偏移正好是条目高度的整数倍
+            long target = Math.round((offset + distance) / itemHeight) * itemHeight - offset;
+            finalY = (int) Math.max(minY, Math.min(maxY, target));
+            if (finalY == 0) {
+                finishScrolling();
+                return;
+            }
+            //调整初速度, 匀减速之后正好停在目标位置: v = sqrt(2 a |d|)
+            this.velocity = (float) (Math.signum(finalY) * Math.sqrt(2.0 * deceleration * Math.abs(finalY)));
+            durationNanos = (long) (Math.abs(this.velocity) / deceleration * 1e9);
+            motionType = MOTION_FLING;
+            //停止时已经对齐, 直接结束滚动
+            startMotion(ANIMATION_JUSTIFY);
+            return;
+        }
+
+        this.velocity = velocity;
+        durationNanos = (long) (Math.abs(velocity) / deceleration * 1e9);
+        finalY = (int) Math.max(minY, Math.min(maxY, Math.round(distance)));
+        motionType = MOTION_FLING;
+        startMotion(ANIMATION_SCROLL);
+    }
+
+    /**
+     * 带动画滚动给定的条目个数, 结束之后对齐到目标条目
+     *
+     * @param items
+     *            滚动的条目个数, 正数向后滚动
+     * @param durationMillis
+     *            动画时间, 单位毫秒
+     */
+    public void scrollBy(int items, int durationMillis) {
+        stopMotion();
+        //从当前位置滚动到目标条目, 包括当前不足一个条目的偏移
+        startTween(clampToInt(-((long) items * itemHeight + offset)), durationMillis, ANIMATION_SCROLL);
+        startScrolling();
+    }
+
+    /**
+     * 推进一帧
+     *
+     * @param frameTimeNanos
+     *            帧时间, 与时钟使用相同的时间基准
+     */
+    public void doFrame(long frameTimeNanos) {
+        if (animationMode == ANIMATION_NONE) {
+            return;
+        }
+        if (startPending) {
+            startPending = false;
+            startNanos = frameTimeNanos;
+        }
+        //帧时间可能早于开始时间 (例如在同一帧的输入阶段开始急冲), 按还没有开始计算
+        long elapsed = Math.max(frameTimeNanos - startNanos, 0);
+        boolean finished = elapsed >= durationNanos;
+        int y = computeY(elapsed);
+        //只在运动方向上的边界停止, 从第一个或者最后一个条目反方向急冲时不会在第一帧停止
+        if (motionType == MOTION_FLING && (velocity > 0 ? y >= maxY : y <= minY)) {
+            finished = true;
+        }
+
+        int delta = y - lastY;
+        lastY = y;
+        if (delta != 0) {
+            applyDelta(delta);
+        }
+        //回调中可能停止了动画
+        if (animationMode == ANIMATION_NONE) {
+            return;
+        }
+
+        //已经很接近终点, 结束动画
+        if (Math.abs(y - finalY) < MIN_DELTA_FOR_SCROLLING) {
+            finished = true;
+        }
+
+        if (!finished) {
+            callback.requestFrame();
+        } else if (animationMode == ANIMATION_SCROLL) {
+            animationMode = ANIMATION_NONE;
+            justify();
+        } else {
+            animationMode = ANIMATION_NONE;
+            finishScrolling();
+        }
+    }
+
+    /**
+     * 立即停止动画并结束滚动
+     */
+    public void finishScrolling() {
+        stopMotion();
+        if (scrolling) {
+            callback.onScrollingFinished();
+            scrolling = false;
+        }
+        offset = 0;
+        callback.onOffsetChanged();
+    }
+
+    /**
+     * 调整到最近的条目, 偏移超过半个条目高度时滚动到下一个条目
+     */
+    private void justify() {
+        int offset = this.offset;
+        boolean needToIncrease = offset > 0 ? currentItem < itemsCount : currentItem > 0;
+        if ((cyclic || needToIncrease) && Math.abs((float) offset) > (float) itemHeight / 2) {
+            if (offset < 0) {
+                offset += itemHeight + MIN_DELTA_FOR_SCROLLING;
+            } else {
+                offset -= itemHeight + MIN_DELTA_FOR_SCROLLING;
+            }
+        }
+        if (Math.abs(offset) > MIN_DELTA_FOR_SCROLLING) {
+            startTween(-offset, DEFAULT_SCROLL_DURATION, ANIMATION_JUSTIFY);
+        } else {
+            finishScrolling();
+        }
+    }
+
+    /**
+     * 开始滚动, 回调开始滚动
+     */
+    private void startScrolling() {
+        if (!scrolling) {
+            scrolling = true;
+            callback.onScrollingStarted();
+        }
+    }
+
+    /**
+     * 开始按插值器移动
+     */
+    private void startTween(int distance, int durationMillis, int mode) {
+        finalY = distance;
+        durationNanos = Math.max(durationMillis, 0) * 1000000L;
+        motionType = MOTION_TWEEN;
+        startMotion(mode);
+    }
+
+    /**
+     * 开始动画, 在下一帧开始移动
+     */
+    private void startMotion(int mode) {
+        animationMode = mode;
+        startPending = clock == null;
+        startNanos = clock != null ? clock.nanoTime() : 0;
+        lastY = 0;
+        callback.requestFrame();
+    }
+
+    /**
+     * 停止动画
+     */
+    private void stopMotion() {
+        animationMode = ANIMATION_NONE;
+    }
+
+    /**
+     * 计算动画开始之后给定时间的位移
+     */
+    private int computeY(long elapsed) {
+        if (elapsed >= durationNanos) {
+            return finalY;
+        }
+        if (elapsed <= 0) {
+            return 0;
+        }
+        if (motionType == MOTION_TWEEN) {
+            float input = (float) elapsed / durationNanos;
+            return Math.round(finalY * interpolator.getInterpolation(input));
+        }
+        //匀减速运动: y = v * t - a * t^2 / 2
+        double t = elapsed / 1e9;
+        double y = velocity * t - Math.signum(velocity) * deceleration * t * t / 2;
+        return (int) Math.max(minY, Math.min(maxY, Math.round(y)));
+    }
+
+    /**
+     * 改变偏移, 偏移超过一个条目高度时改变当前条目
+     *
+     * @param delta
+     *            偏移的改变值
+     */
+    private void applyDelta(int delta) {
+        if (itemHeight <= 0) {
+            return;
+        }
+        offset += delta;
+
+        //滚动的条目数, 偏移为正时向前滚动
+        int count = offset / itemHeight;
+        int pos = currentItem - count;
+        if (cyclic && itemsCount > 0) {
+            pos = WheelMath.normalize(pos, itemsCount);
+        } else if (scrolling) {
+            //不可循环时停在第一个或者最后一个条目, 超出的部分保留在偏移中
+            if (pos < 0) {
+                count = currentItem;
+                pos = 0;
+            } else if (pos >= itemsCount) {
+                count = currentItem - itemsCount + 1;
+                pos = itemsCount - 1;
+            }
+        } else {
+            pos = Math.max(Math.min(pos, itemsCount - 1), 0);
+        }
+
+        //保存不足一个条目高度的偏移
+        offset -= count * itemHeight;
+        if (viewportHeight > 0 && offset > viewportHeight) {
+            offset = offset % viewportHeight + viewportHeight;
+        }
+
+        if (pos != currentItem) {
+            int old = currentItem;
+            currentItem = pos;
+            callback.onItemChanged(old, pos);
+        } else {
+            callback.onOffsetChanged();
+        }
+    }
+
+    /**
+     * 将 long 限制到 int 的范围内
+     */
+    private static int clampToInt(long value) {
+        if (value > Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        } else if (value < -Integer.MAX_VALUE) {
+            return -Integer.MAX_VALUE;
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,174 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.Locale;
+
+/**
+ * 适配器条目的有序查找索引
+ * -- 建立时读取每个条目一次, 按 去掉首尾空白并转为小写 之后的文字排序, 相同文字按条目索引排序
+ * -- 前缀查找 和 最近匹配 都是二分查找, O(log n) 次字符串比较
+ * -- 建立之后不再修改, 适配器数据改变之后需要重新建立
+ */
+public final class WheelSearchIndex {
+
+    /** 排序之后的文字 */
+    private final String[] keys;
+    /** 排序之后每个文字对应的条目索引 */
+    private final int[] positions;
+
+    private WheelSearchIndex(String[] keys, int[] positions) {
+        this.keys = keys;
+        this.positions = positions;
+    }
+
+    /**
+     * 为适配器建立索引, 可以在后台线程中调用, 适配器需要支持在后台线程中读取
+     *
+     * @param adapter
+     *            适配器
+     * @return
+     * 		索引
+     */
+    public static WheelSearchIndex build(WheelAdapter adapter) {
+        int count = adapter.getItemsCount();
+        String[] texts = new String[count];
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            texts[i] = normalize(adapter.getItem(i));
+            order[i] = i;
+        }
+        //稳定排序, 相同文字保持条目索引的顺序
+        mergeSort(order, new int[count], 0, count, texts);
+
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = texts[order[i]];
+        }
+        return new WheelSearchIndex(keys, order);
+    }
+
+    /**
+     * 获取索引的条目个数
+     *
+     * @return
+     * 		条目个数
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * 查找以 prefix 开头的条目, 有多个时返回按文字排序的第一个
+     *
+     * @param prefix
+     *            前缀
+     * @return
+     * 		条目的索引, 没有匹配的条目返回 -1
+     */
+    public int findPrefix(String prefix) {
+        String key = normalize(prefix);
+        int i = lowerBound(key);
+        if (i < keys.length && keys[i].startsWith(key)) {
+            return positions[i];
+        }
+        return -1;
+    }
+
+    /**
+     * 获取以 prefix 开头的条目个数
+     *
+     * @param prefix
+     *            前缀
+     * @return
+     * 		匹配的条目个数
+     */
+    public int getMatchCount(String prefix) {
+        String key = normalize(prefix);
+        //所有以 key 开头的文字都排在 key 和 key 后接最大字符 之间
+        return lowerBound(key + '\uffff') - lowerBound(key);
+    }
+
+    /**
+     * 查找最接近 text 的条目
+     * 取排序位置前后两个条目中 与 text 公共前缀较长的一个, 相同时取后一个
+     *
+     * @param text
+     *            要查找的文字
+     * @return
+     * 		条目的索引, 索引为空时返回 -1
+     */
+    public int findNearest(String text) {
+        if (keys.length == 0) {
+            return -1;
+        }
+        String key = normalize(text);
+        int i = lowerBound(key);
+        if (i == keys.length) {
+            return positions[i - 1];
+        }
+        if (i == 0) {
+            return positions[0];
+        }
+        return commonPrefix(keys[i - 1], key) > commonPrefix(keys[i], key) ? positions[i - 1] : positions[i];
+    }
+
+    /**
+     * 查找第一个不小于 key 的排序位置
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 计算两个字符串的公共前缀长度
+     */
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 转换为查找使用的文字: 去掉首尾空白, 转为小写
+     */
+    static String normalize(String text) {
+        return text != null ? text.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * 按文字对条目索引归并排序
+     */
+    private static void mergeSort(int[] order, int[] buffer, int from, int to, String[] texts) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(order, buffer, from, mid, texts);
+        mergeSort(order, buffer, mid, to, texts);
+        if (texts[order[mid - 1]].compareTo(texts[order[mid]]) <= 0) {
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && texts[buffer[i]].compareTo(texts[buffer[j]]) <= 0)) {
+                order[k] = buffer[i++];
+            } else {
+                order[k] = buffer[j++];
+            }
+        }
+    }
+}
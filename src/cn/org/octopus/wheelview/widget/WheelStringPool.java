@@ -0,0 +1,178 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.util.HashMap;
+
+/**
+ * 去重的字符串池
+ * -- 所有不同的字符串连续保存在一个 char[] 中, 每个字符串用一个 int 编号表示
+ * -- 相同的字符串只保存一次, 例如 多个省份下都有的 "市辖区"
+ * -- 创建之后不再修改, 可以被多个适配器 和 多个 WheelView 共享, 可以在多个线程中读取
+ * -- 最近获取的字符串保存在有限容量的缓存中, 重复的条目 和 多个 WheelView 同时显示的条目返回同一个字符串对象
+ */
+public final class WheelStringPool {
+
+    /** 默认缓存的字符串个数, 一般为几个 WheelView 几屏的条目数 */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    /**
+     * 字符串池构建器, 非线程安全
+     */
+    public static final class Builder {
+
+        /** 已经添加的字符串和它的编号 */
+        private final HashMap<String, Integer> ids = new HashMap<String, Integer>();
+        /** 字符数据 */
+        private char[] chars = new char[256];
+        /** 字符数据的长度 */
+        private int length;
+        /** 每个编号的起始位置, 第 i 个字符串是 [starts[i], starts[i + 1]) */
+        private int[] starts = new int[65];
+        /** 不同字符串的个数 */
+        private int count;
+
+        /**
+         * 添加一个字符串, 已经添加过的字符串返回之前的编号
+         *
+         * @param text
+         *            字符串, 不能为 null
+         * @return
+         * 		字符串的编号
+         */
+        public int add(String text) {
+            Integer id = ids.get(text);
+            if (id != null) {
+                return id;
+            }
+            if (length + text.length() > chars.length) {
+                char[] newChars = new char[Math.max(chars.length * 2, length + text.length())];
+                System.arraycopy(chars, 0, newChars, 0, length);
+                chars = newChars;
+            }
+            if (count + 2 > starts.length) {
+                int[] newStarts = new int[starts.length * 2];
+                System.arraycopy(starts, 0, newStarts, 0, count + 1);
+                starts = newStarts;
+            }
+            text.getChars(0, text.length(), chars, length);
+            length += text.length();
+            starts[++count] = length;
+            ids.put(text, count - 1);
+            return count - 1;
+        }
+
+        /**
+         * 添加一组字符串
+         *
+         * @param texts
+         *            字符串数组
+         * @return
+         * 		每个字符串的编号
+         */
+        public int[] addAll(String[] texts) {
+            int[] result = new int[texts.length];
+            for (int i = 0; i < texts.length; i++) {
+                result[i] = add(texts[i]);
+            }
+            return result;
+        }
+
+        /**
+         * 添加二维字符串数组, 例如 每个省份的城市
+         *
+         * @param texts
+         *            二维字符串数组
+         * @return
+         * 		每个字符串的编号
+         */
+        public int[][] addAll(String[][] texts) {
+            int[][] result = new int[texts.length][];
+            for (int i = 0; i < texts.length; i++) {
+                result[i] = addAll(texts[i]);
+            }
+            return result;
+        }
+
+        /**
+         * 创建字符串池, 使用默认的缓存大小, 之后构建器不能再使用
+         *
+         * @return
+         * 		字符串池
+         */
+        public WheelStringPool build() {
+            return build(DEFAULT_CACHE_SIZE);
+        }
+
+        /**
+         * 创建字符串池, 之后构建器不能再使用
+         *
+         * @param cacheSize
+         *            缓存的字符串个数, 必须大于 0
+         * @return
+         * 		字符串池
+         */
+        public WheelStringPool build(int cacheSize) {
+            char[] poolChars = new char[length];
+            System.arraycopy(chars, 0, poolChars, 0, length);
+            int[] poolStarts = new int[count + 1];
+            System.arraycopy(starts, 0, poolStarts, 0, count + 1);
+            chars = null;
+            starts = null;
+            ids.clear();
+            return new WheelStringPool(poolChars, poolStarts, cacheSize);
+        }
+    }
+
+    /** 所有字符串的字符数据 */
+    private final char[] chars;
+    /** 每个编号的起始位置 */
+    private final int[] starts;
+    /** 最近获取的字符串, 以编号为键, 访问时需要同步 */
+    private final IntLruCache<String> strings;
+
+    private WheelStringPool(char[] chars, int[] starts, int cacheSize) {
+        this.chars = chars;
+        this.starts = starts;
+        this.strings = new IntLruCache<String>(cacheSize);
+    }
+
+    /**
+     * 获取不同字符串的个数
+     *
+     * @return
+     * 		字符串个数
+     */
+    public int size() {
+        return starts.length - 1;
+    }
+
+    /**
+     * 获取编号对应的字符串, 不在缓存中时创建新的字符串对象
+     *
+     * @param id
+     *            字符串编号
+     * @return
+     * 		字符串
+     */
+    public String getString(int id) {
+        synchronized (strings) {
+            String text = strings.get(id);
+            if (text == null) {
+                text = new String(chars, starts[id], starts[id + 1] - starts[id]);
+                strings.put(id, text);
+            }
+            return text;
+        }
+    }
+
+    /**
+     * 获取编号对应的字符串长度, 不需要创建字符串
+     *
+     * @param id
+     *            字符串编号
+     * @return
+     * 		字符个数
+     */
+    public int getLength(int id) {
+        return starts[id + 1] - starts[id];
+    }
+}
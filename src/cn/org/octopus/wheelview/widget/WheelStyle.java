@@ -0,0 +1,126 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+import cn.org.octopus.wheelview.R;
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.graphics.drawable.GradientDrawable.Orientation;
+import android.text.Layout;
+import android.text.TextPaint;
+
+/**
+ * WheelView 的绘制样式: 画笔, 装饰图片 和 字体度量
+ * -- 创建之后不再修改, 使用相同资源的所有 WheelView 共享同一个样式,
+ *    同一屏中有多个 WheelView 时 (例如 日期时间选择器) 只创建一份画笔和装饰图片
+ * -- 按 Resources 弱引用缓存, 没有 WheelView 使用之后可以被回收
+ * -- 只能在 UI 线程中使用其中的画笔绘制; 后台线程测量条目时使用画笔的副本
+ */
+public final class WheelStyle {
+
+    /** 当前条目中的文字颜色 */
+    private static final int VALUE_TEXT_COLOR = 0xF0FF6347;
+
+    /** 非当前条目的文字颜色 */
+    private static final int ITEMS_TEXT_COLOR = 0xFF000000;
+
+    /** 顶部和底部的阴影颜色 */
+    //private static final int[] SHADOWS_COLORS = new int[] { 0xFF5436EE, 0x0012CEAE, 0x0012CEAE };
+    private static final int[] SHADOWS_COLORS = new int[] { 0xFF111111, 0x00AAAAAA, 0x00AAAAAA };
+
+    /** 样式缓存, 资源对象被回收之后对应的条目自动移除 */
+    private static final WeakHashMap<Resources, WeakReference<WheelStyle>> CACHE = new WeakHashMap<Resources, WeakReference<WheelStyle>>();
+
+    /** 绘制普通条目画笔 */
+    final TextPaint itemsPaint;
+    /** 绘制选中条目画笔 */
+    final TextPaint valuePaint;
+
+    /** 组件背景 */
+    final Drawable background;
+    /** 选中条目的背景 */
+    final Drawable centerDrawable;
+    /** 顶部阴影 */
+    final GradientDrawable topShadow;
+    /** 底部阴影 */
+    final GradientDrawable bottomShadow;
+
+    /** 条目高度 */
+    final int itemHeight;
+    /** 字符 "0" 的宽度, 向上取整 */
+    final float digitWidth;
+
+    private WheelStyle(Resources resources) {
+    	/*
+    	 * 设置绘制普通条目的画笔, 允许抗拒齿, 允许 fake-bold
+    	 * 设置文字大小为 24
+    	 */
+        itemsPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG | Paint.FAKE_BOLD_TEXT_FLAG);
+        itemsPaint.setTextSize(WheelView.TEXT_SIZE);
+        itemsPaint.setColor(ITEMS_TEXT_COLOR);
+
+        //设置绘制选中条目的画笔
+        valuePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG | Paint.FAKE_BOLD_TEXT_FLAG | Paint.DITHER_FLAG);
+        valuePaint.setTextSize(WheelView.TEXT_SIZE);
+        valuePaint.setShadowLayer(0.1f, 0, 0.1f, 0xFFC0C0C0);
+        valuePaint.setColor(VALUE_TEXT_COLOR);
+
+        background = resources.getDrawable(R.drawable.wheel_bg);
+        centerDrawable = resources.getDrawable(R.drawable.wheel_val);
+        //创建顶部 和 底部阴影图片, 构造方法中传入颜色渐变方向 和 阴影颜色
+        topShadow = new GradientDrawable(Orientation.TOP_BOTTOM, SHADOWS_COLORS);
+        bottomShadow = new GradientDrawable(Orientation.BOTTOM_TOP, SHADOWS_COLORS);
+
+        //单行布局的高度 : 字体的行高 (descent - ascent) 加上 额外的条目高度
+        Paint.FontMetricsInt fm = itemsPaint.getFontMetricsInt();
+        itemHeight = fm.descent - fm.ascent + WheelView.ADDITIONAL_ITEM_HEIGHT;
+        digitWidth = (float) Math.ceil(Layout.getDesiredWidth("0", itemsPaint));
+    }
+
+    /**
+     * 获取上下文对象对应的共享样式, 没有缓存时创建, 可以在后台线程中调用
+     *
+     * @param context
+     *            上下文对象
+     * @return
+     * 		共享的样式
+     */
+    public static WheelStyle obtain(Context context) {
+        Resources resources = context.getResources();
+        synchronized (CACHE) {
+            WeakReference<WheelStyle> ref = CACHE.get(resources);
+            WheelStyle style = ref != null ? ref.get() : null;
+            if (style == null) {
+                style = new WheelStyle(resources);
+                CACHE.put(resources, new WeakReference<WheelStyle>(style));
+            }
+            return style;
+        }
+    }
+
+    /**
+     * 获取条目高度
+     *
+     * @return
+     * 		条目高度, 单位像素
+     */
+    public int getItemHeight() {
+        return itemHeight;
+    }
+
+    /**
+     * 根据最大字符个数估算条目宽度, 使用字符 "0" 的宽度乘以字符个数
+     *
+     * @param maxLength
+     *            最大字符个数
+     * @return
+     * 		估算的宽度, 单位像素
+     */
+    int getCharsWidth(int maxLength) {
+        return (int) (maxLength * digitWidth);
+    }
+}
@@ -1,138 +1,147 @@
 package cn.org.octopus.wheelview.widget;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.Executor;
 
-import cn.org.octopus.wheelview.R;
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Rect;
-import android.graphics.drawable.Drawable;
-import android.graphics.drawable.GradientDrawable;
-import android.graphics.drawable.GradientDrawable.Orientation;
+import android.os.Build;
 import android.os.Handler;
-import android.os.Message;
+import android.os.Looper;
 import android.text.Layout;
 import android.text.StaticLayout;
 import android.text.TextPaint;
 import android.util.AttributeSet;
+import android.view.Display;
 import android.view.GestureDetector;
 import android.view.GestureDetector.SimpleOnGestureListener;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.WindowManager;
 import android.view.animation.Interpolator;
-import android.widget.Scroller;
 
 /**
  * WheelView 主对象
  */
 public class WheelView extends View {
-    /** 滚动花费时间 Scrolling duration */
-    private static final int SCROLLING_DURATION = 400;
-
-    /** 最小的滚动值, 每次最少滚动一个单位 */
-    private static final int MIN_DELTA_FOR_SCROLLING = 1;
-
-    /** 当前条目中的文字颜色 */
-    private static final int VALUE_TEXT_COLOR = 0xF0FF6347;
-
-    /** 非当前条目的文字颜色 */
-    private static final int ITEMS_TEXT_COLOR = 0xFF000000;
-
-    /** 顶部和底部的阴影颜色 */
-    //private static final int[] SHADOWS_COLORS = new int[] { 0xFF5436EE, 0x0012CEAE, 0x0012CEAE };
-    private static final int[] SHADOWS_COLORS = new int[] { 0xFF111111, 0x00AAAAAA, 0x00AAAAAA };
-
     /** 额外的条目高度 Additional items height (is added to standard text item height) */
-    private static final int ADDITIONAL_ITEM_HEIGHT = 15;
+    static final int ADDITIONAL_ITEM_HEIGHT = 15;
 
     /** 字体大小 */
-    private static final int TEXT_SIZE = 24;
+    static final int TEXT_SIZE = 24;
 
     /** 顶部 和 底部 条目的隐藏大小, 
      * 如果是正数 会隐藏一部份, 
      * 0 顶部 和 底部的字正好紧贴 边缘, 
      * 负数时 顶部和底部 与 字有一定间距 */
-    private static final int ITEM_OFFSET = TEXT_SIZE / 5;
+    static final int ITEM_OFFSET = TEXT_SIZE / 5;
 
     /** Additional width for items layout */
-    private static final int ADDITIONAL_ITEMS_SPACE = 10;
+    static final int ADDITIONAL_ITEMS_SPACE = 10;
 
     /** Label offset */
     private static final int LABEL_OFFSET = 8;
 
     /** Left and right padding value */
-    private static final int PADDING = 10;
+    static final int PADDING = 10;
 
     /** 默认的可显示的条目数 */
-    private static final int DEF_VISIBLE_ITEMS = 5;
+    static final int DEF_VISIBLE_ITEMS = 5;
+
+    /** 条目布局缓存的屏数, 缓存容量 = 每屏绘制的条目数 * 该值 */
+    static final int ITEMS_CACHE_SCREENS = 3;
+
+    /** 默认的异步适配器预加载条目数 */
+    static final int DEF_PREFETCH_WINDOW = 32;
 
-    /** WheelView 适配器 */
-    private WheelAdapter adapter = null;
-    /** 当前显示的条目索引 */
-    private int currentItem = 0;
+    /** 默认的条目位图图集内存上限, 单位字节 */
+    private static final int DEF_ROW_ATLAS_MAX_BYTES = 2 * 1024 * 1024;
+
+    /** WheelView 的适配器, 条目个数, 条目布局缓存, 条目宽度索引 和 选中条目布局, 同时观察可观察的适配器 */
+    private WheelColumn items;
 
     /** 条目宽度 */
     private int itemsWidth = 0;
+
+    /** 在后台预先测量条目的线程池, 为 null 时在 UI 线程中测量 */
+    private Executor measureExecutor;
+    /** 设置适配器的计数, 用于丢弃过期的后台测量结果 */
+    private int measureGeneration;
+    /** 将后台测量结果发送到 UI 线程 */
+    private Handler mainHandler;
+    /** 预热的测量结果, 等待设置对应的适配器时使用 */
+    private MeasuredItems prewarmedItems;
+    /** 适配器不支持查找时为它建立的查找索引, 第一次查找时建立, 适配器改变时丢弃 */
+    private WheelSearchIndex searchIndex;
     /** 标签宽度 */
     private int labelWidth = 0;
 
     /** 可见的条目数 */
     private int visibleItems = DEF_VISIBLE_ITEMS;
 
+    /** 异步适配器沿滚动方向预加载的条目数 */
+    private int prefetchWindow = DEF_PREFETCH_WINDOW;
+
     /** 条目高度 */
     private int itemHeight = 0;
 
-    /** 绘制普通条目画笔 */
+    /** 共享的绘制样式, 包括画笔 和 装饰图片 */
+    private WheelStyle style;
+    /** 绘制普通条目画笔, 来自共享的样式 */
     private TextPaint itemsPaint;
-    /** 绘制选中条目画笔 */
+    /** 绘制选中条目画笔, 来自共享的样式 */
     private TextPaint valuePaint;
 
-    /** 普通条目布局
-     * StaticLayout 布局用于控制 TextView 组件, 一般情况下不会直接使用该组件, 
-     * 除非你自定义一个组件 或者 想要直接调用  Canvas.drawText() 方法
-     *  */
-    private StaticLayout itemsLayout;
+    /** 当前绘制的条目布局窗口, 当前条目改变时只旋转一行 */
+    private VisibleRowWindow rowWindow;
+    /** 是否将普通条目栅格化到位图图集中绘制 */
+    private boolean rowAtlasEnabled;
+    /** 条目位图图集的内存上限 */
+    private int rowAtlasMaxBytes = DEF_ROW_ATLAS_MAX_BYTES;
     private StaticLayout labelLayout;
-    /** 选中条目布局 */
-    private StaticLayout valueLayout;
+
+    /** 性能统计, 为 null 时不统计 */
+    private WheelMetrics metrics;
+    /** 性能统计监听器 */
+    private WheelMetrics.OnMetricsListener metricsListener;
 
     /** 标签 在选中条目的右边出现 */
     private String label;
-    /** 选中条目的背景图片 */
-    private Drawable centerDrawable;
 
-    /** 顶部阴影图片 */
-    private GradientDrawable topShadow;
-    /** 底部阴影图片 */
-    private GradientDrawable bottomShadow;
+    /** 静态装饰: 背景, 选中条目背景图片, 顶部和底部阴影图片, 后两者缓存在位图中 */
+    private WheelChrome chrome;
 
-    /** 是否在滚动 */
-    private boolean isScrollingPerformed;
-    /** 滚动的位置 */
-    private int scrollingOffset;
 
     /** 手势检测器 */
     private GestureDetector gestureDetector;
-    /** 
-     * Scroll 类封装了滚动动作. 
-     * 开发者可以使用 Scroll 或者 Scroll 实现类 去收集产生一个滚动动画所需要的数据, 返回一个急冲滑动的手势.
-     * 该对象可以追踪随着时间推移滚动的偏移量, 但是这些对象不会自动向 View 对象提供这些位置.
-     * 如果想要使滚动动画看起来比较平滑, 开发者需要在适当的时机  获取 和 使用新的坐标; 
-     *  */
-    private Scroller scroller;
-    /** 之前所在的 y 轴位置 */
-    private int lastScrollY;
+    /** 滚动引擎, 保存当前条目和滚动偏移, 实现拖动, 急冲, 滚动动画 和 调整动画 */
+    private WheelScrollEngine engine;
+
+    /** 驱动滚动动画的帧时钟, 每一帧推进一次滚动引擎 */
+    private WheelFrameClock frameClock;
 
     /** 是否循环 */
     boolean isCyclic = false;
 
-    /** 条目改变监听器集合  封装了条目改变方法, 当条目改变时回调 */
-    private List<OnWheelChangedListener> changingListeners = new LinkedList<OnWheelChangedListener>();
+    /** 条目改变监听器集合  封装了条目改变方法, 当条目改变时回调
+     * 写时复制的数组, 回调时按索引遍历, 不会创建迭代器对象, 回调过程中可以添加和移除监听器 */
+    private final ListenerList<OnWheelChangedListener> changingListeners = new ListenerList<OnWheelChangedListener>();
     /** 条目滚动监听器集合, 该监听器封装了 开始滚动方法, 结束滚动方法 */
-    private List<OnWheelScrollListener> scrollingListeners = new LinkedList<OnWheelScrollListener>();
+    private final ListenerList<OnWheelScrollListener> scrollingListeners = new ListenerList<OnWheelScrollListener>();
+
+    // 条目改变回调模式
+    /** 每次条目改变都回调 */
+    public static final int DISPATCH_EACH_CHANGE = 0;
+    /** 滚动过程中每帧最多回调一次, 合并这一帧之内的条目改变 */
+    public static final int DISPATCH_PER_FRAME = 1;
+    /** 滚动过程中不回调, 停止滚动之后回调一次最终的条目 */
+    public static final int DISPATCH_ON_SETTLE = 2;
+
+    /** 条目改变回调模式 */
+    private int changeDispatchMode = DISPATCH_EACH_CHANGE;
+    /** 等待合并回调的条目改变次数, 0 表示没有 */
+    private int pendingChangeCount;
+    /** 等待合并回调的第一次改变之前的条目 */
+    private int pendingOldValue;
 
     /**
      * 构造方法
@@ -174,8 +183,51 @@ public class WheelView extends View {
          */
         gestureDetector.setIsLongpressEnabled(false);
         
-        //使用默认的 时间 和 插入器 创建一个滚动器
-        scroller = new Scroller(context);
+        /*
+         * 创建滚动引擎, 急冲距离按屏幕密度换算
+         * 动画从第一帧开始计时, 帧时间可以来自任意的帧时钟
+         */
+        engine = new WheelScrollEngine(engineCallback);
+        engine.setFriction(WheelScrollEngine.DEFAULT_FRICTION, context.getResources().getDisplayMetrics().density);
+
+        //条目状态 和 适配器观察, 与 WheelGroup 的每一列相同
+        items = new WheelColumn() {
+            @Override
+            void onItemsInvalidated() {
+                searchIndex = null;
+                //后台测量结果中的条目已经过期, 不能再放回布局缓存
+                measureGeneration++;
+            }
+
+            @Override
+            void onItemsReset() {
+                scheduleMeasure();
+            }
+
+            @Override
+            void onCurrentItemChanged(int oldItem, int newItem) {
+                dispatchItemChanged(oldItem, newItem);
+            }
+
+            @Override
+            void requestLayout() {
+                WheelView.this.requestLayout();
+            }
+
+            @Override
+            void invalidate() {
+                WheelView.this.invalidate();
+            }
+
+            @Override
+            WheelMetrics getMetrics() {
+                return metrics;
+            }
+        };
+        items.engine = engine;
+
+        //默认使用与屏幕刷新同步的帧时钟
+        frameClock = new DefaultFrameClock();
     }
 
     /**
@@ -185,7 +237,7 @@ public class WheelView extends View {
      * 		返回适配器
      */
     public WheelAdapter getAdapter() {
-        return adapter;
+        return items.adapter;
     }
 
     /**
@@ -195,22 +247,273 @@ public class WheelView extends View {
      *            要设置的适配器
      */
     public void setAdapter(WheelAdapter adapter) {
-        this.adapter = adapter;
+        //观察可观察的适配器, 清空缓存的条目布局 和 宽度索引
+        items.setAdapter(adapter);
+        searchIndex = null;
         invalidateLayouts();
+        prefetchItems(0);
+        invalidate();
+
+        //使用为新适配器预热的测量结果, 没有时在后台线程中预先测量
+        measureGeneration++;
+        MeasuredItems prewarmed = prewarmedItems;
+        prewarmedItems = null;
+        if (prewarmed != null && prewarmed.adapter == adapter && adapter != null) {
+            adoptMeasuredItems(prewarmed);
+        } else {
+            scheduleMeasure();
+        }
+    }
+
+    /**
+     * 使用预热的资源, 需要在显示之前调用
+     * -- 还没有样式时, 直接使用预热的样式 (画笔, 装饰图片 和 条目高度)
+     * -- 预热时测量了适配器, 使用测量结果; 还没有设置该适配器时, 等设置该适配器时再使用
+     * -- 预热时的可见条目数, 当前条目, 标签 与 WheelView 的设置不同时, 只有部分布局可以使用
+     * 
+     * @param prewarm
+     *            预热的资源, 每个只能使用一次
+     */
+    public void applyPrewarm(WheelPrewarm prewarm) {
+        prewarm.markApplied();
+        if (style == null) {
+            setStyle(prewarm.style);
+        }
+        if (prewarm.measured != null) {
+            if (prewarm.measured.adapter == items.adapter) {
+                adoptMeasuredItems(prewarm.measured);
+            } else {
+                prewarmedItems = prewarm.measured;
+            }
+        }
         invalidate();
     }
 
+    /**
+     * 设置在后台预先测量条目的线程池
+     * 设置之后, 每次设置适配器都会在后台线程中测量条目宽度, 并创建当前条目附近的条目布局, 
+     * 显示时不需要在 UI 线程中测量. 适配器需要支持在后台线程中读取条目,
+     * 可观察的适配器 (包括异步适配器) 数据只能在 UI 线程中读写, 不会预先测量
+     * 
+     * @param executor
+     *            线程池, 为 null 时在 UI 线程中测量
+     */
+    public void setMeasureExecutor(Executor executor) {
+        measureExecutor = executor;
+        scheduleMeasure();
+    }
+
+    /**
+     * 开始在后台线程中测量当前适配器的条目
+     */
+    private void scheduleMeasure() {
+        //可观察的适配器可能在 UI 线程中修改数据, 不能在后台线程中读取
+        if (measureExecutor == null || items.adapter == null || items.itemsCount == 0
+                || items.adapter instanceof ObservableWheelAdapter) {
+            return;
+        }
+        initPaintsIfNecessary();
+        if (mainHandler == null) {
+            mainHandler = new Handler(Looper.getMainLooper());
+        }
+
+        //后台线程使用画笔的副本, 共享的画笔只能在 UI 线程中使用
+        final TextPaint itemsPaintCopy = new TextPaint(itemsPaint);
+        final TextPaint valuePaintCopy = new TextPaint(valuePaint);
+
+        final WheelAdapter measuredAdapter = items.adapter;
+        final int generation = measureGeneration;
+        final Layout.Alignment alignment = label != null && label.length() > 0 ? Layout.Alignment.ALIGN_OPPOSITE
+                : Layout.Alignment.ALIGN_CENTER;
+        final int[] indices = MeasuredItems.collectIndices(getCurrentItem(), visibleItems, items.itemsCount, isCyclic);
+        final int valueIndex = getCurrentItem();
+
+        measureExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final MeasuredItems measured = MeasuredItems.measure(measuredAdapter, generation, itemsPaintCopy,
+                        valuePaintCopy, ADDITIONAL_ITEMS_SPACE, ADDITIONAL_ITEM_HEIGHT, alignment, indices,
+                        valueIndex);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        applyMeasuredItems(measured);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 使用后台测量结果, 在 UI 线程中执行
+     * 
+     * @param measured
+     *            测量结果
+     */
+    private void applyMeasuredItems(MeasuredItems measured) {
+    	//适配器已经改变, 丢弃测量结果
+        if (measured.generation != measureGeneration || measured.adapter != items.adapter) {
+            return;
+        }
+        adoptMeasuredItems(measured);
+    }
+
+    /**
+     * 使用当前适配器的测量结果 (后台测量 或者 预热), 已经有的布局不会被替换
+     * 
+     * @param measured
+     *            当前适配器的测量结果
+     */
+    private void adoptMeasuredItems(MeasuredItems measured) {
+
+        //使用完整的宽度索引
+        if (measured.widthIndex != null && measured.widthIndex.getCount() == items.itemsCount
+                && (items.widthIndex == null || !items.widthIndex.isComplete())) {
+            items.widthIndex = measured.widthIndex;
+        }
+
+        /*
+         * 如果还没有测量组件, 或者测量的宽度与预先测量的相同, 使用预先创建的条目布局
+         * 宽度不同时 (例如 宽度是给定的) 丢弃这些布局, 绘制时再创建
+         */
+        initPaintsIfNecessary();
+        if (items.itemsCache == null) {
+            items.itemsCache = new ItemLayoutCache(getItemsCacheCapacity(), itemsPaint, ADDITIONAL_ITEM_HEIGHT);
+        }
+        if (items.itemsCache.getWidth() == -1
+                || (items.itemsCache.getWidth() == measured.layoutWidth && items.itemsCache.getAlignment() == measured.alignment)) {
+            items.itemsCache.setup(measured.layoutWidth, measured.alignment);
+            for (int i = 0; i < measured.indices.length; i++) {
+                if (measured.layouts[i] != null && items.itemsCache.get(measured.indices[i]) == null) {
+                    items.itemsCache.put(measured.indices[i], measured.layouts[i]);
+                }
+            }
+            if (items.valueLayout == null && !engine.isScrolling() && getCurrentItem() == measured.valueIndex) {
+                items.valueLayout = measured.valueLayout;
+            }
+        }
+        invalidate();
+    }
+
+    /**
+     * 设置适配器, 并恢复之前为该适配器保存的布局状态
+     * 
+     * @param adapter
+     *            要设置的适配器
+     * @param state
+     *            之前由 detachLayoutState 保存的该适配器的布局状态, 可以为 null
+     */
+    void setAdapter(WheelAdapter adapter, WheelLayoutState state) {
+        setAdapter(adapter);
+        //可观察的适配器在保存状态之后可能改变过, 没有观察到这些改变, 不能恢复
+        if (state != null && !(adapter instanceof ObservableWheelAdapter)) {
+        	//可见条目数改变之后缓存容量不同, 不再使用之前的缓存
+            if (state.itemsCache != null && state.itemsCache.getCapacity() == getItemsCacheCapacity()) {
+                items.itemsCache = state.itemsCache;
+            }
+            items.widthIndex = state.widthIndex;
+        }
+    }
+
+    /**
+     * 取出当前适配器的布局状态, 取出之后当前 WheelView 不再使用这些缓存
+     * 
+     * @return 
+     * 		当前适配器的布局状态
+     */
+    WheelLayoutState detachLayoutState() {
+        //保存的状态不持有位图图集, 避免每个缓存的适配器都占用一张位图
+        if (items.itemsCache != null) {
+            items.itemsCache.setRowAtlas(null);
+        }
+        WheelLayoutState state = new WheelLayoutState(items.itemsCache, items.widthIndex);
+        items.itemsCache = null;
+        items.widthIndex = null;
+        return state;
+    }
+
+    /**
+     * 设置异步适配器沿滚动方向预加载的条目数
+     * 
+     * @param window
+     *            预加载的条目数, 0 表示不预加载
+     */
+    public void setPrefetchWindow(int window) {
+        prefetchWindow = Math.max(window, 0);
+    }
+
+    /**
+     * 如果适配器是异步适配器, 预加载当前条目附近的条目
+     * 
+     * @param direction
+     *            滚动方向, 大于 0 向后, 小于 0 向前, 0 表示没有方向
+     */
+    private void prefetchItems(int direction) {
+        items.prefetch(direction, prefetchWindow);
+    }
+
     /**
      * 设置 Scroll 的插入器
      * 
      * @param interpolator
      *            the interpolator
      */
-    public void setInterpolator(Interpolator interpolator) {
-    	//强制停止滚动
-        scroller.forceFinished(true);
-        //创建一个 Scroll 对象
-        scroller = new Scroller(getContext(), interpolator);
+    public void setInterpolator(final Interpolator interpolator) {
+        //正在执行的动画会被停止
+        engine.setInterpolator(interpolator == null ? null : new WheelScrollEngine.Interpolator() {
+            @Override
+            public float getInterpolation(float input) {
+                return interpolator.getInterpolation(input);
+            }
+        });
+    }
+
+    /**
+     * 设置急冲的摩擦系数, 摩擦系数越大, 急冲的距离越短
+     * 
+     * @param friction
+     *            摩擦系数, 默认为 WheelScrollEngine.DEFAULT_FRICTION, 必须大于 0
+     */
+    public void setFlingFriction(float friction) {
+        engine.setFriction(friction, getContext().getResources().getDisplayMetrics().density);
+    }
+
+    /**
+     * 设置急冲的最大速度, 手指更快的急冲按该速度计算
+     * 
+     * @param maxVelocity
+     *            手指的最大速度, 单位 像素 / 秒, 必须大于 0
+     */
+    public void setMaxFlingVelocity(float maxVelocity) {
+        //引擎的初速度是手指速度的一半
+        engine.setMaxVelocity(maxVelocity / 2);
+    }
+
+    /**
+     * 设置急冲时是否预测停止的条目
+     * 开启后急冲直接减速停在预测的条目上, 没有单独的调整动画, 停止得更快, 动画的帧数也更少
+     * 
+     * @param enabled
+     *            是否预测停止的条目
+     */
+    public void setSnapFlingEnabled(boolean enabled) {
+        engine.setSnapToItem(enabled);
+    }
+
+    /**
+     * 设置驱动滚动动画的帧时钟, 正在执行的动画会被停止
+     * 
+     * @param clock
+     *            帧时钟, 传入 null 恢复使用默认的帧时钟
+     */
+    public void setFrameClock(WheelFrameClock clock) {
+        flushPendingChanges();
+        frameClock.removeFrameCallback(animationCallback);
+        frameClock = clock != null ? clock : new DefaultFrameClock();
+        //正在执行的动画在新的帧时钟上继续
+        if (engine.isAnimating()) {
+            frameClock.postFrameCallback(animationCallback);
+        }
     }
 
     /**
@@ -222,6 +525,116 @@ public class WheelView extends View {
         return visibleItems;
     }
 
+    /**
+     * 设置是否使用条目位图图集
+     * -- 开启后每个普通条目只栅格化一次, 保存在一张位图中, 之后绘制时直接复制位图
+     * -- 快速滑动时每帧的绘制开销更小, 代价是图集占用的内存
+     * -- 适合反复显示同一批条目的 WheelView, 例如 可循环的 小时 / 分钟 选择器
+     * 
+     * @param enabled
+     *            是否使用条目位图图集
+     */
+    public void setRowBitmapCacheEnabled(boolean enabled) {
+        if (rowAtlasEnabled != enabled) {
+            rowAtlasEnabled = enabled;
+            if (!enabled && items.itemsCache != null) {
+                items.itemsCache.setRowAtlas(null);
+            }
+            invalidate();
+        }
+    }
+
+    /**
+     * 设置条目位图图集的内存上限, 超过上限时淘汰最久没有显示的条目
+     * 
+     * @param maxBytes
+     *            内存上限, 单位字节
+     */
+    public void setRowBitmapCacheMaxBytes(int maxBytes) {
+        if (rowAtlasMaxBytes != maxBytes) {
+            rowAtlasMaxBytes = maxBytes;
+            //下次绘制时按照新的上限重新创建图集
+            if (items.itemsCache != null) {
+                items.itemsCache.setRowAtlas(null);
+            }
+            invalidate();
+        }
+    }
+
+    /**
+     * 设置是否开启性能统计
+     * 没有开启时不记录任何数据, 只在统计点多一次 null 判断
+     * 
+     * @param enabled
+     *            是否开启, 关闭时丢弃已经统计的数据
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled && metrics == null) {
+            metrics = new WheelMetrics();
+        } else if (!enabled) {
+            metrics = null;
+        }
+    }
+
+    /**
+     * 是否开启了性能统计
+     * 
+     * @return 
+     * 		开启了返回 true
+     */
+    public boolean isMetricsEnabled() {
+        return metrics != null;
+    }
+
+    /**
+     * 获取性能统计结果的副本
+     * 
+     * @return 
+     * 		从开启统计 (或者上次重置) 到现在的统计结果, 没有开启统计时返回 null
+     */
+    public WheelMetrics getMetricsSnapshot() {
+        return metrics != null ? metrics.snapshot() : null;
+    }
+
+    /**
+     * 重置性能统计结果
+     */
+    public void resetMetrics() {
+        if (metrics != null) {
+            metrics = new WheelMetrics();
+        }
+    }
+
+    /**
+     * 获取 WheelView 所在屏幕的帧间隔
+     * 
+     * @return 
+     * 		帧间隔, 单位纳秒, 不知道屏幕刷新率时返回 0
+     */
+    private long getFrameIntervalNanos() {
+        Display display;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            //没有添加到窗口时为 null
+            display = getDisplay();
+        } else {
+            WindowManager windowManager = (WindowManager) getContext().getSystemService(Context.WINDOW_SERVICE);
+            display = windowManager != null ? windowManager.getDefaultDisplay() : null;
+        }
+        float refreshRate = display != null ? display.getRefreshRate() : 0;
+        //部分设备在刷新率未知时返回 0 或者很小的值
+        return refreshRate >= 10 ? (long) (1000000000L / refreshRate) : 0;
+    }
+
+    /**
+     * 设置性能统计监听器, 开启统计时每次滚动结束之后回调统计结果的副本
+     * 
+     * @param listener
+     *            the listener, 为 null 时取消监听
+     */
+    public void setOnMetricsListener(WheelMetrics.OnMetricsListener listener) {
+        metricsListener = listener;
+    }
+
     /**
      * 设置可见条目数
      * 
@@ -230,6 +643,10 @@ public class WheelView extends View {
      */
     public void setVisibleItems(int count) {
         visibleItems = count;
+        //缓存容量与可见条目数有关, 下次创建布局时重新创建缓存
+        if (items.itemsCache != null && items.itemsCache.getCapacity() != getItemsCacheCapacity()) {
+            items.itemsCache = null;
+        }
         invalidate();
     }
 
@@ -266,6 +683,36 @@ public class WheelView extends View {
         changingListeners.add(listener);
     }
 
+    /**
+     * 设置条目改变回调模式
+     * -- DISPATCH_EACH_CHANGE : 每次条目改变都回调, 默认模式
+     * -- DISPATCH_PER_FRAME : 滚动过程中每帧最多回调一次
+     * -- DISPATCH_ON_SETTLE : 滚动过程中不回调, 停止滚动之后回调一次
+     * 合并回调时 onChanged 的旧值是第一次改变之前的条目, 新值是最后的条目, 
+     * 实现 OnWheelChangeSummaryListener 的监听器还可以得到合并的改变次数;
+     * 最终回到原来条目时不回调. 没有滚动时的条目改变总是立即回调
+     * 
+     * @param mode
+     *            回调模式
+     */
+    public void setChangeDispatchMode(int mode) {
+        if (mode != DISPATCH_EACH_CHANGE && mode != DISPATCH_PER_FRAME && mode != DISPATCH_ON_SETTLE) {
+            throw new IllegalArgumentException("unknown dispatch mode: " + mode);
+        }
+        flushPendingChanges();
+        changeDispatchMode = mode;
+    }
+
+    /**
+     * 获取条目改变回调模式
+     * 
+     * @return 
+     * 		回调模式
+     */
+    public int getChangeDispatchMode() {
+        return changeDispatchMode;
+    }
+
     /**
      * 移除 WheelView 元素改变监听器
      * 
@@ -285,11 +732,70 @@ public class WheelView extends View {
      *            新的 WheelView选中的值
      */
     protected void notifyChangingListeners(int oldValue, int newValue) {
-        for (OnWheelChangedListener listener : changingListeners) {
-            listener.onChanged(this, oldValue, newValue);
+        Object[] listeners = changingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            ((OnWheelChangedListener) listeners[i]).onChanged(this, oldValue, newValue);
         }
     }
 
+    /**
+     * 根据回调模式处理一次条目改变, 立即回调 或者 等待合并
+     * 
+     * @param oldValue
+     *            旧的条目
+     * @param newValue
+     *            新的条目
+     */
+    private void dispatchItemChanged(int oldValue, int newValue) {
+        if (changeDispatchMode == DISPATCH_EACH_CHANGE || !engine.isScrolling()) {
+            flushPendingChanges();
+            notifyChangingListeners(oldValue, newValue);
+            return;
+        }
+        if (pendingChangeCount == 0) {
+            pendingOldValue = oldValue;
+            if (changeDispatchMode == DISPATCH_PER_FRAME) {
+                frameClock.postFrameCallback(changeDispatchCallback);
+            }
+        }
+        pendingChangeCount++;
+    }
+
+    /**
+     * 回调等待合并的条目改变
+     */
+    private void flushPendingChanges() {
+        if (pendingChangeCount == 0) {
+            return;
+        }
+        int count = pendingChangeCount;
+        pendingChangeCount = 0;
+        frameClock.removeFrameCallback(changeDispatchCallback);
+        int currentItem = getCurrentItem();
+        if (pendingOldValue == currentItem) {
+            return;
+        }
+        Object[] listeners = changingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] instanceof OnWheelChangeSummaryListener) {
+                ((OnWheelChangeSummaryListener) listeners[i]).onChangesCoalesced(this, pendingOldValue, currentItem,
+                        count);
+            } else {
+                ((OnWheelChangedListener) listeners[i]).onChanged(this, pendingOldValue, currentItem);
+            }
+        }
+    }
+
+    /**
+     * 每帧合并回调条目改变
+     */
+    private final WheelFrameClock.FrameCallback changeDispatchCallback = new WheelFrameClock.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            flushPendingChanges();
+        }
+    };
+
     /**
      * 添加 WheelView 滚动监听器
      * 
@@ -314,9 +820,10 @@ public class WheelView extends View {
      * 通知监听器开始滚动
      */
     protected void notifyScrollingListenersAboutStart() {
-        for (OnWheelScrollListener listener : scrollingListeners) {
+        Object[] listeners = scrollingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
         	//回调开始滚动方法
-            listener.onScrollingStarted(this);
+            ((OnWheelScrollListener) listeners[i]).onScrollingStarted(this);
         }
     }
 
@@ -324,9 +831,10 @@ public class WheelView extends View {
      * 通知监听器结束滚动
      */
     protected void notifyScrollingListenersAboutEnd() {
-        for (OnWheelScrollListener listener : scrollingListeners) {
+        Object[] listeners = scrollingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
         	//回调滚动结束方法
-            listener.onScrollingFinished(this);
+            ((OnWheelScrollListener) listeners[i]).onScrollingFinished(this);
         }
     }
 
@@ -337,7 +845,7 @@ public class WheelView extends View {
      * 		当前元素索引
      */
     public int getCurrentItem() {
-        return currentItem;
+        return engine.getCurrentItem();
     }
 
     /**
@@ -352,43 +860,54 @@ public class WheelView extends View {
      */
     public void setCurrentItem(int index, boolean animated) {
     	//如果没有适配器或者元素个数为0 直接返回
-        if (adapter == null || adapter.getItemsCount() == 0) {
+        if (items.adapter == null || items.itemsCount == 0) {
             return; // throw?
         }
         //目标索引小于 0 或者大于 元素索引最大值(个数 -1)
-        if (index < 0 || index >= adapter.getItemsCount()) {
+        if (index < 0 || index >= items.itemsCount) {
         	//入股WheelView 可循环, 修正索引值, 如果不可循环直接返回
             if (isCyclic) {
-                while (index < 0) {
-                    index += adapter.getItemsCount();
-                }
-                index %= adapter.getItemsCount();
+                index = WheelMath.normalize(index, items.itemsCount);
             } else {
                 return; // throw?
             }
         }
         
         //如果当前的索引不是传入的 索引
-        if (index != currentItem) {
+        if (index != getCurrentItem()) {
         	
         	/*
         	 * 如果需要动画, 就滚动到目标位置
         	 * 如果不需要动画, 重新设置布局
         	 */
             if (animated) {
+                /*
+                 * 目标很远时先直接跳到距离目标 MAX_ANIMATED_ITEMS 个条目的位置, 
+                 * 动画最多经过 MAX_ANIMATED_ITEMS 个条目, 耗时与距离无关
+                 */
+                int start = WheelMath.animationStart(getCurrentItem(), index, items.itemsCount, isCyclic,
+                        WheelMath.MAX_ANIMATED_ITEMS);
+                if (start != getCurrentItem()) {
+                    setCurrentItem(start, false);
+                }
+            	//可循环时沿较近的方向滚动
+                int distance = isCyclic ? WheelMath.cyclicDistance(start, index, items.itemsCount) : index - start;
             	/*
-            	 * 开始滚动, 每个元素滚动间隔 400 ms, 滚动次数是 目标索引值 减去 当前索引值, 这是滚动的真实方法
+            	 * 开始滚动, 滚动花费 400 ms, 滚动次数是 目标索引值 减去 当前索引值, 这是滚动的真实方法
             	 */
-                scroll(index - currentItem, SCROLLING_DURATION);
+                scroll(distance, WheelScrollEngine.DEFAULT_SCROLL_DURATION);
             } else {
             	//所有布局设置为 null, 滚动位置设置为 0
                 invalidateLayouts();
 
-                int old = currentItem;
-                currentItem = index;
+                int old = getCurrentItem();
+                engine.setCurrentItem(index);
+
+                //沿滚动方向预加载, 可循环时跨越首尾的变化方向相反
+                prefetchItems(isCyclic ? WheelMath.cyclicDistance(old, index, items.itemsCount) : index - old);
 
-                //便利回调元素改变监听器集合中的监听器元素中的元素改变方法
-                notifyChangingListeners(old, currentItem);
+                //按照回调模式 回调元素改变监听器集合中的监听器元素中的元素改变方法
+                dispatchItemChanged(old, getCurrentItem());
 
                 //重绘
                 invalidate();
@@ -417,6 +936,48 @@ public class WheelView extends View {
         return isCyclic;
     }
 
+    /**
+     * 滚动到以 prefix 开头的条目, 没有匹配的条目时滚动到最接近的条目
+     * -- 适配器实现了 IndexedWheelAdapter 时使用适配器的查找方法
+     * -- 否则第一次查找时为适配器建立查找索引, 之后的查找都是二分查找; 异步适配器不支持查找
+     * -- 目标很远时先直接跳到目标附近, 动画最多经过几个条目
+     * 
+     * @param prefix
+     *            要查找的前缀, 忽略大小写和首尾空白
+     * @return 
+     * 		找到条目返回 true
+     */
+    public boolean scrollToMatch(String prefix) {
+        WheelAdapter adapter = items.adapter;
+        if (adapter == null || items.itemsCount == 0) {
+            return false;
+        }
+        int index;
+        if (adapter instanceof IndexedWheelAdapter) {
+            IndexedWheelAdapter indexed = (IndexedWheelAdapter) adapter;
+            index = indexed.findPrefix(prefix);
+            if (index < 0) {
+                index = indexed.findNearest(prefix);
+            }
+        } else if (adapter instanceof AsyncWheelAdapter) {
+            //建立索引需要读取所有条目, 异步适配器不支持查找
+            return false;
+        } else {
+            if (searchIndex == null) {
+                searchIndex = WheelSearchIndex.build(adapter);
+            }
+            index = searchIndex.findPrefix(prefix);
+            if (index < 0) {
+                index = searchIndex.findNearest(prefix);
+            }
+        }
+        if (index < 0 || index >= items.itemsCount) {
+            return false;
+        }
+        setCurrentItem(index, true);
+        return true;
+    }
+
     /**
      * 设置 WheelView 循环标志
      * 
@@ -432,72 +993,70 @@ public class WheelView extends View {
 
     /**
      * 使布局无效
-     * 将 选中条目 和 普通条目设置为 null, 滚动位置设置为0
+     * 将 选中条目布局设置为 null, 滚动位置设置为0
+     * 普通条目布局以条目索引缓存, 当前条目改变时不需要重新创建
      */
     private void invalidateLayouts() {
-        itemsLayout = null;
-        valueLayout = null;
-        scrollingOffset = 0;
+        items.valueLayout = null;
+        engine.resetOffset();
+    }
+
+    /**
+     * 获取条目布局缓存的容量, 可以缓存几屏的条目
+     * 
+     * @return 
+     * 		缓存容量
+     */
+    private int getItemsCacheCapacity() {
+        return (visibleItems + 3) * ITEMS_CACHE_SCREENS;
     }
 
     /**
      * 初始化资源
      */
     private void initResourcesIfNecessary() {
-    	/*
-    	 * 设置绘制普通条目的画笔, 允许抗拒齿, 允许 fake-bold
-    	 * 设置文字大小为 24
-    	 */
-        if (itemsPaint == null) {
-            itemsPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG | Paint.FAKE_BOLD_TEXT_FLAG);
-            itemsPaint.setTextSize(TEXT_SIZE);
-        }
+        initPaintsIfNecessary();
 
         /*
-         * 设置绘制选中条目的画笔
-         * 设置文字大小 24
+         * 创建静态装饰
+         * 背景 不再设置为 View 的背景, 由装饰直接绘制; 选中条目背景 和 阴影 按各自的大小缓存到位图中绘制
+         * 装饰图片来自共享的样式, 位图由每个 WheelView 单独持有
          */
-        if (valuePaint == null) {
-            valuePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG | Paint.FAKE_BOLD_TEXT_FLAG | Paint.DITHER_FLAG);
-            valuePaint.setTextSize(TEXT_SIZE);
-            valuePaint.setShadowLayer(0.1f, 0, 0.1f, 0xFFC0C0C0);
-        }
-
-        //选中的条目背景
-        if (centerDrawable == null) {
-            centerDrawable = getContext().getResources().getDrawable(R.drawable.wheel_val);
-        }
-
-        //创建顶部阴影图片
-        if (topShadow == null) {
-        	/*
-        	 * 构造方法中传入颜色渐变方向
-        	 * 阴影颜色
-        	 */
-            topShadow = new GradientDrawable(Orientation.TOP_BOTTOM, SHADOWS_COLORS);
+        if (chrome == null) {
+            chrome = new WheelChrome(style);
         }
+    }
 
-        //创建底部阴影图片
-        if (bottomShadow == null) {
-            bottomShadow = new GradientDrawable(Orientation.BOTTOM_TOP, SHADOWS_COLORS);
+    /**
+     * 初始化画笔, 使用相同资源的 WheelView 共享同一份画笔
+     */
+    private void initPaintsIfNecessary() {
+        if (style == null) {
+            setStyle(WheelStyle.obtain(getContext()));
         }
+    }
 
-        /*
-         * 设置 View 组件的背景
-         */
-        setBackgroundResource(R.drawable.wheel_bg);
+    /**
+     * 设置共享的样式
+     * 
+     * @param style
+     *            样式
+     */
+    private void setStyle(WheelStyle style) {
+        this.style = style;
+        itemsPaint = style.itemsPaint;
+        valuePaint = style.valuePaint;
+        itemHeight = style.itemHeight;
     }
 
     /**
      * 计算布局期望的高度
      * 
-     * @param layout
-     *      组件的布局的
      * @return 
      * 		布局需要的高度
      */
-    private int getDesiredHeight(Layout layout) {
-        if (layout == null) {
+    private int getDesiredHeight() {
+        if (items.itemsCache == null) {
             return 0;
         }
 
@@ -512,104 +1071,6 @@ public class WheelView extends View {
         return desired;
     }
 
-    /**
-     * 根据条目获取字符串
-     * 
-     * @param index
-     *            条目索引
-     * @return 
-     * 		条目显示的字符串
-     */
-    private String getTextItem(int index) {
-        if (adapter == null || adapter.getItemsCount() == 0) {
-            return null;
-        }
-        //适配器显示的字符串个数
-        int count = adapter.getItemsCount();
-        
-        //考虑 index 小于 0 的情况
-        if ((index < 0 || index >= count) && !isCyclic) {
-            return null;
-        } else {
-            while (index < 0) {
-                index = count + index;
-            }
-        }
-
-        //index 大于 0
-        index %= count;
-        return adapter.getItem(index);
-    }
-
-    /**
-     * 根据当前值创建 字符串
-     * 
-     * @param useCurrentValue
-     * 		是否在滚动
-     * @return the text
-     * 		生成的字符串
-     */
-    private String buildText(boolean useCurrentValue) {
-    	//创建字符串容器
-        StringBuilder itemsText = new StringBuilder();
-        //计算出显示的条目相对位置, 例如显示 5个, 第 3 个是正中见选中的布局
-        int addItems = visibleItems / 2 + 1;
-
-        /*
-         * 遍历显示的条目
-         * 获取当前显示条目 上下 各 addItems 个文本, 将该文本添加到显示文本中去
-         * 如果不是最后一个 都加上回车
-         */
-        for (int i = currentItem - addItems; i <= currentItem + addItems; i++) {
-        	//如果在滚动
-            if (useCurrentValue || i != currentItem) {
-                String text = getTextItem(i);
-                if (text != null) {
-                    itemsText.append(text);
-                }
-            }
-            if (i < currentItem + addItems) {
-                itemsText.append("\n");
-            }
-        }
-
-        return itemsText.toString();
-    }
-
-    /**
-     * 返回 条目的字符串
-     * 
-     * @return 
-     * 		条目最大宽度
-     */
-    private int getMaxTextLength() {
-        WheelAdapter adapter = getAdapter();
-        if (adapter == null) {
-            return 0;
-        }
-
-        //如果获取的最大条目宽度不为 -1, 可以直接返回该条目宽度
-        int adapterLength = adapter.getMaximumLength();
-        if (adapterLength > 0) {
-            return adapterLength;
-        }
-
-        String maxText = null;
-        int addItems = visibleItems / 2;
-        /*
-         * 遍历当前显示的条目, 获取字符串长度最长的那个, 返回这个最长的字符串长度
-         */
-        for (int i = Math.max(currentItem - addItems, 0); i < Math.min(currentItem + visibleItems,
-                adapter.getItemsCount()); i++) {
-            String text = adapter.getItem(i);
-            if (text != null && (maxText == null || maxText.length() < text.length())) {
-                maxText = text;
-            }
-        }
-
-        return maxText != null ? maxText.length() : 0;
-    }
-
     /**
      * 获取每个条目的高度
      * 
@@ -620,12 +1081,9 @@ public class WheelView extends View {
     	//如果条目高度不为 0, 直接返回
         if (itemHeight != 0) {
             return itemHeight;
-        //如果条目的高度为 0, 并且普通条目布局不为null, 条目个数大于 2 
-        } else if (itemsLayout != null && itemsLayout.getLineCount() > 2) {
-        	/*
-        	 * itemsLayout.getLineTop(2) : 获取顶部第二行上面的垂直(y轴)位置, 如果行数等于
-        	 */
-            itemHeight = itemsLayout.getLineTop(2) - itemsLayout.getLineTop(1);
+        //如果条目的高度为 0, 并且画笔已经创建
+        } else if (style != null) {
+            itemHeight = style.itemHeight;
             return itemHeight;
         }
 
@@ -646,25 +1104,13 @@ public class WheelView extends View {
     private int calculateLayoutWidth(int widthSize, int mode) {
         initResourcesIfNecessary();
 
+        //重新读取条目个数, 适配器的数据改变之后调用 requestLayout 即可生效
+        items.itemsCount = items.adapter != null ? items.adapter.getItemsCount() : 0;
+
         int width = widthSize;
 
-        //获取最长的条目显示字符串字符个数
-        int maxLength = getMaxTextLength();
-        
-        if (maxLength > 0) {
-        	/*
-        	 * 使用方法 FloatMath.ceil() 方法有以下警告
-        	 * Use java.lang.Math#ceil instead of android.util.FloatMath#ceil() since it is faster as of API 8
-        	 */
-            //float textWidth = FloatMath.ceil(Layout.getDesiredWidth("0", itemsPaint));
-        	//向上取整  计算一个字符串宽度
-        	float textWidth = (float) Math.ceil(Layout.getDesiredWidth("0", itemsPaint));
-        	
-        	//获取字符串总的宽度
-            itemsWidth = (int) (maxLength * textWidth);
-        } else {
-            itemsWidth = 0;
-        }
+        //获取最长的条目的宽度
+        itemsWidth = items.getMaxTextWidth(style, visibleItems);
         
         //总宽度加上一些间距
         itemsWidth += ADDITIONAL_ITEMS_SPACE; // make it some more
@@ -736,47 +1182,36 @@ public class WheelView extends View {
      *            label 宽度
      */
     private void createLayouts(int widthItems, int widthLabel) {
+        long startNanos = metrics != null ? System.nanoTime() : 0;
+
     	/*
-    	 * 创建普通条目布局
-    	 * 如果 普通条目布局 为 null 或者 普通条目布局的宽度 大于 传入的宽度, 这时需要重新创建布局
-    	 * 如果 普通条目布局存在, 并且其宽度小于传入的宽度, 此时需要将
+    	 * 设置普通条目布局缓存
+    	 * 每个条目的布局在绘制时按需创建, 这里只设置布局的宽度和对齐方式, 
+    	 * 如果宽度或者对齐方式改变了, 已经缓存的布局全部失效
     	 */
-        if (itemsLayout == null || itemsLayout.getWidth() > widthItems) {
-        	
-        	/*
-        	 * android.text.StaticLayout.StaticLayout(
-        	 * CharSequence source, TextPaint paint, 
-        	 * int width, Alignment align, 
-        	 * float spacingmult, float spacingadd, boolean includepad)
-        	 * 传入参数介绍 : 
-        	 * CharSequence source : 需要分行显示的字符串
-        	 * TextPaint paint : 绘制字符串的画笔
-        	 * int width : 条目的宽度
-        	 * Alignment align : Layout 的对齐方式, ALIGN_CENTER 居中对齐, ALIGN_NORMAL 左对齐, Alignment.ALIGN_OPPOSITE 右对齐
-        	 * float spacingmult : 行间距, 1.5f 代表 1.5 倍字体高度
-        	 * float spacingadd : 基础行距上增加多少 , 真实行间距 等于 spacingmult 和 spacingadd 的和
-        	 * boolean includepad : 
-        	 */
-            itemsLayout = new StaticLayout(buildText(isScrollingPerformed), itemsPaint, widthItems,
-                    widthLabel > 0 ? Layout.Alignment.ALIGN_OPPOSITE : Layout.Alignment.ALIGN_CENTER, 1,
-                    ADDITIONAL_ITEM_HEIGHT, false);
-        } else {
-        	//调用 Layout 内置的方法 increaseWidthTo 将宽度提升到指定的宽度
-            itemsLayout.increaseWidthTo(widthItems);
+        if (items.itemsCache == null) {
+            items.itemsCache = new ItemLayoutCache(getItemsCacheCapacity(), itemsPaint, ADDITIONAL_ITEM_HEIGHT);
         }
+        items.itemsCache.setup(widthItems,
+                widthLabel > 0 ? Layout.Alignment.ALIGN_OPPOSITE : Layout.Alignment.ALIGN_CENTER);
+        updateRowAtlas();
 
         /*
          * 创建选中条目
          */
-        if (!isScrollingPerformed && (valueLayout == null || valueLayout.getWidth() > widthItems)) {
-            String text = getAdapter() != null ? getAdapter().getItem(currentItem) : null;
-            valueLayout = new StaticLayout(text != null ? text : "", valuePaint, widthItems,
+        if (!engine.isScrolling() && (items.valueLayout == null || items.valueLayout.getWidth() > widthItems)) {
+            String text = getAdapter() != null ? getAdapter().getItem(getCurrentItem()) : null;
+            items.valueLayout = new StaticLayout(text != null ? text : "", valuePaint, widthItems,
                     widthLabel > 0 ? Layout.Alignment.ALIGN_OPPOSITE : Layout.Alignment.ALIGN_CENTER, 1,
                     ADDITIONAL_ITEM_HEIGHT, false);
-        } else if (isScrollingPerformed) {
-            valueLayout = null;
+            if (metrics != null) {
+                metrics.recordItemRequests(1);
+                metrics.recordLayoutCreated();
+            }
+        } else if (engine.isScrolling()) {
+            items.valueLayout = null;
         } else {
-            valueLayout.increaseWidthTo(widthItems);
+            items.valueLayout.increaseWidthTo(widthItems);
         }
 
         /*
@@ -790,6 +1225,10 @@ public class WheelView extends View {
                 labelLayout.increaseWidthTo(widthLabel);
             }
         }
+
+        if (metrics != null) {
+            metrics.recordLayout(System.nanoTime() - startNanos);
+        }
     }
 
     /*
@@ -819,7 +1258,7 @@ public class WheelView extends View {
         //未定义模式 和 最大模式
         } else {
         	//未定义模式下 获取布局需要的高度
-            height = getDesiredHeight(itemsLayout);
+            height = getDesiredHeight();
 
             //最大模式下 获取 布局高度 和 布局所需高度的最小值
             if (heightMode == MeasureSpec.AT_MOST) {
@@ -833,25 +1272,29 @@ public class WheelView extends View {
 
     /*
      * 绘制组件
+     * 条目布局缓存命中之后, 绘制过程中不会再创建任何对象, 避免滚动时触发 GC
      * (non-Javadoc)
      * @see android.view.View#onDraw(android.graphics.Canvas)
      */
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        long startNanos = metrics != null ? System.nanoTime() : 0;
 
-        //如果条目布局为 null, 就创建该布局
-        if (itemsLayout == null) {
-        	/*
-        	 * 如果 条目宽度为0, 说明该宽度没有计算, 先计算, 计算完之后会创建布局
-        	 * 如果 条目宽度 大于 0, 说明已经计算过宽度了, 直接创建布局
-        	 */
-            if (itemsWidth == 0) {
-                calculateLayoutWidth(getWidth(), MeasureSpec.EXACTLY);
-            } else {
-            	//创建普通条目布局, 选中条目布局, 标签条目布局
-                createLayouts(itemsWidth, labelWidth);
-            }
+        initResourcesIfNecessary();
+        //绘制条目下面的背景
+        chrome.drawUnderlay(canvas, getWidth(), getHeight(), getItemHeight(), visibleItems);
+
+    	/*
+    	 * 如果 条目宽度为0, 说明该宽度没有计算, 先计算, 计算完之后会创建布局
+    	 * 如果 条目宽度 大于 0, 说明已经计算过宽度了, 直接创建布局
+    	 * (布局已经存在时 createLayouts 不会重新创建)
+    	 */
+        if (itemsWidth == 0) {
+            calculateLayoutWidth(getWidth(), MeasureSpec.EXACTLY);
+        } else {
+        	//设置普通条目布局缓存, 创建选中条目布局, 标签条目布局
+            createLayouts(itemsWidth, labelWidth);
         }
 
         //如果条目宽度大于0
@@ -866,24 +1309,52 @@ public class WheelView extends View {
             canvas.restore();
         }
 
-        //在中心位置绘制
-        drawCenterRect(canvas);
-        //绘制阴影
-        drawShadows(canvas);
+        //在中心位置绘制选中条目背景, 绘制阴影
+        chrome.drawOverlay(canvas);
+
+        if (metrics != null) {
+            metrics.recordDraw(System.nanoTime() - startNanos);
+        }
     }
 
     /**
-     * Draws shadows on top and bottom of control
-     * 
-     * @param canvas
-     *            the canvas for drawing
+     * 开启条目位图图集时, 为当前的条目尺寸准备图集
+     * 条目宽度或者高度改变时重新创建图集, 创建失败时直接绘制条目
      */
-    private void drawShadows(Canvas canvas) {
-        topShadow.setBounds(0, 0, getWidth(), getHeight() / visibleItems);
-        topShadow.draw(canvas);
+    private void updateRowAtlas() {
+        if (!rowAtlasEnabled) {
+            return;
+        }
+        int width = items.itemsCache.getWidth();
+        int height = getItemHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        RowBitmapAtlas atlas = items.itemsCache.getRowAtlas();
+        if (atlas == null || !atlas.matches(width, height)) {
+            items.itemsCache.setRowAtlas(null);
+            try {
+                items.itemsCache.setRowAtlas(new RowBitmapAtlas(width, height, rowAtlasMaxBytes));
+            } catch (OutOfMemoryError e) {
+                rowAtlasEnabled = false;
+            }
+        }
+    }
 
-        bottomShadow.setBounds(0, getHeight() - getHeight() / visibleItems, getWidth(), getHeight());
-        bottomShadow.draw(canvas);
+    /*
+     * 从窗口中移除时释放装饰位图, 再次显示时重新创建
+     * (non-Javadoc)
+     * @see android.view.View#onDetachedFromWindow()
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (chrome != null) {
+            chrome.recycle();
+        }
+        if (items.itemsCache != null) {
+            items.itemsCache.setRowAtlas(null);
+        }
     }
 
     /**
@@ -893,28 +1364,25 @@ public class WheelView extends View {
      *            画布
      */
     private void drawValue(Canvas canvas) {
-        valuePaint.setColor(VALUE_TEXT_COLOR);
-        
         //将当前 View 状态属性值 转为整型集合, 赋值给 普通条目布局的绘制属性
         valuePaint.drawableState = getDrawableState();
 
-        Rect bounds = new Rect();
-        //获取选中条目布局的边界
-        itemsLayout.getLineBounds(visibleItems / 2, bounds);
+        //选中条目所在行的顶部位置
+        int top = visibleItems / 2 * getItemHeight();
 
         // 绘制标签
         if (labelLayout != null) {
             canvas.save();
-            canvas.translate(itemsLayout.getWidth() + LABEL_OFFSET, bounds.top);
+            canvas.translate(items.itemsCache.getWidth() + LABEL_OFFSET, top);
             labelLayout.draw(canvas);
             canvas.restore();
         }
 
         // 绘制选中条目
-        if (valueLayout != null) {
+        if (items.valueLayout != null) {
             canvas.save();
-            canvas.translate(0, bounds.top + scrollingOffset);
-            valueLayout.draw(canvas);
+            canvas.translate(0, top + engine.getOffset());
+            items.valueLayout.draw(canvas);
             canvas.restore();
         }
     }
@@ -928,31 +1396,62 @@ public class WheelView extends View {
     private void drawItems(Canvas canvas) {
         canvas.save();
 
-        //获取 y 轴 定点高度
-        int top = itemsLayout.getLineTop(1);
-        canvas.translate(0, -top + scrollingOffset);
+        int itemHeight = getItemHeight();
+        //计算出显示的条目相对位置, 例如显示 5个, 第 3 个是正中见选中的布局
+        int addItems = visibleItems / 2 + 1;
+        //第一个绘制的条目位于可见区域上方一行
+        canvas.translate(0, -itemHeight + engine.getOffset());
 
-        //设置画笔颜色
-        itemsPaint.setColor(ITEMS_TEXT_COLOR);
-        //将当前 View 状态属性值 转为整型集合, 赋值给 普通条目布局的绘制属性
+        /*
+         * 将当前 View 状态属性值 转为整型集合, 赋值给 普通条目布局的绘制属性
+         * 画笔由多个 WheelView 共享, 每次绘制之前重新设置, 所有绘制都在 UI 线程中依次执行
+         */
         itemsPaint.drawableState = getDrawableState();
-        //将布局绘制到画布上
-        itemsLayout.draw(canvas);
 
-        canvas.restore();
-    }
+        //画笔状态改变之后, 图集中已经栅格化的条目作废
+        RowBitmapAtlas atlas = items.itemsCache.getRowAtlas();
+        if (atlas != null) {
+            atlas.validate(itemsPaint);
+        }
+        int currentItem = getCurrentItem();
+        boolean scrolling = engine.isScrolling();
 
-    /**
-     * 绘制当前选中条目的背景图片
-     * 
-     * @param canvas
-     *            画布
-     */
-    private void drawCenterRect(Canvas canvas) {
-        int center = getHeight() / 2;
-        int offset = getItemHeight() / 2;
-        centerDrawable.setBounds(0, center - offset, getWidth(), center + offset);
-        centerDrawable.draw(canvas);
+        //将布局窗口移动到当前条目, 经过一个条目只需要重新获取新进入窗口的一行
+        int rowCount = addItems * 2 + 1;
+        if (rowWindow == null || rowWindow.size() != rowCount) {
+            rowWindow = new VisibleRowWindow(rowCount);
+        }
+        rowWindow.moveTo(currentItem, items.itemsCache, items.itemsCount, isCyclic);
+
+        /*
+         * 逐行绘制当前显示条目 上下 各 addItems 个条目
+         * 没有滚动时 当前条目由选中条目布局绘制, 这里跳过
+         * 使用位图图集时, 已经栅格化的条目直接复制位图, 否则先栅格化到图集中
+         */
+        for (int row = 0; row < rowCount; row++) {
+            int i = currentItem - addItems + row;
+            int realIndex = items.getRealIndex(i, isCyclic);
+            if (realIndex >= 0 && (scrolling || i != currentItem)
+                    && (atlas == null || !atlas.draw(canvas, realIndex))) {
+                StaticLayout layout;
+                if (rowWindow.isFilled(row)) {
+                    layout = rowWindow.get(row);
+                } else {
+                    layout = items.getItemLayout(realIndex);
+                    rowWindow.set(row, layout);
+                }
+                if (layout != null) {
+                    if (atlas != null) {
+                        atlas.rasterizeAndDraw(canvas, realIndex, layout);
+                    } else {
+                        layout.draw(canvas);
+                    }
+                }
+            }
+            canvas.translate(0, itemHeight);
+        }
+
+        canvas.restore();
     }
 
     /*
@@ -973,76 +1472,19 @@ public class WheelView extends View {
          * -- 参数解析 : ev , 触摸事件
          * -- 返回值 : 如果手势监听器成功执行了该方法, 返回true, 如果执行出现意外 返回 false;
          */
+        updateEngineLayout();
         if (!gestureDetector.onTouchEvent(event) && event.getAction() == MotionEvent.ACTION_UP) {
-            justify();
+            //没有急冲, 调整到最近的条目
+            engine.release();
         }
         return true;
     }
 
     /**
-     * 滚动 WheelView
-     * 
-     * @param delta
-     *            滚动的值
+     * 将布局参数设置到滚动引擎, 在驱动引擎之前调用
      */
-    private void doScroll(int delta) {
-        scrollingOffset += delta;
-        
-        //计算滚动的条目数, 使用滚动的值 处于 单个条目高度, 注意计算整数值
-        int count = scrollingOffset / getItemHeight();
-        /*
-         * pos 是滚动后的目标元素索引
-         * 计算当前位置, 当前条目数 减去 滚动的条目数
-         * 注意 滚动条目数可正 可负
-         */
-        int pos = currentItem - count;
-        //如果是可循环的, 并且条目数大于0
-        if (isCyclic && adapter.getItemsCount() > 0) {
-            //设置循环, 如果位置小于0, 那么该位置就显示最后一个元素
-            while (pos < 0) {
-                pos += adapter.getItemsCount();
-            }
-            //如果位置正无限大, 模条目数 取余
-            pos %= adapter.getItemsCount();
-            
-        // (前提 : 不可循环  条目数大于0, 可循环 条目数小于0, 条目数小于0, 不可循环) , 如果滚动在执行
-        } else if (isScrollingPerformed) {
-            //位置一旦小于0, 计算的位置就赋值为 0, 条目滚动数为0
-            if (pos < 0) {
-                count = currentItem;
-                pos = 0;
-                
-            //位置大于条目数的时候, 当前位置等于(条目数 - 1), 条目滚动数等于 当前位置 减去 (条目数 - 1)
-            } else if (pos >= adapter.getItemsCount()) {
-                count = currentItem - adapter.getItemsCount() + 1;
-                pos = adapter.getItemsCount() - 1;
-            }
-        
-        } else {
-            // fix position
-            pos = Math.max(pos, 0);
-            pos = Math.min(pos, adapter.getItemsCount() - 1);
-        }
-
-        //滚动的高度
-        int offset = scrollingOffset;
-        
-        /*
-         * 如果当前位置不是滚动后的目标位置, 就将当前位置设置为目标位置
-         * 否则就重绘组件
-         */
-        if (pos != currentItem) {
-            setCurrentItem(pos, false);
-        } else {
-        	//重绘组件
-            invalidate();
-        }
-
-        // 将滚动后剩余的小数部分保存
-        scrollingOffset = offset - count * getItemHeight();
-        if (scrollingOffset > getHeight()) {
-            scrollingOffset = scrollingOffset % getHeight() + getHeight();
-        }
+    private void updateEngineLayout() {
+        engine.setLayout(getItemHeight(), items.itemsCount, isCyclic, getHeight());
     }
 
     /**
@@ -1053,14 +1495,8 @@ public class WheelView extends View {
     	//按下操作
         public boolean onDown(MotionEvent e) {
         	//如果滚动在执行
-            if (isScrollingPerformed) {
-            	//滚动强制停止, 按下的时候不能继续滚动
-                scroller.forceFinished(true);
-                //清理信息
-                clearMessages();
-                return true;
-            }
-            return false;
+            //滚动强制停止, 按下的时候不能继续滚动
+            return engine.hold();
         }
 
         /*
@@ -1078,9 +1514,12 @@ public class WheelView extends View {
          * @see android.view.GestureDetector.SimpleOnGestureListener#onScroll(android.view.MotionEvent, android.view.MotionEvent, float, float)
          */
         public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
-        	//开始滚动, 并回调滚动监听器集合中监听器的 开始滚动方法
-            startScrolling();
-            doScroll((int) -distanceY);
+        	//开始滚动 (回调滚动监听器集合中监听器的 开始滚动方法), 并移动手指移动的距离
+            long startNanos = metrics != null ? System.nanoTime() : 0;
+            engine.drag((int) -distanceY);
+            if (metrics != null) {
+                metrics.recordScroll(System.nanoTime() - startNanos);
+            }
             return true;
         }
 
@@ -1099,160 +1538,95 @@ public class WheelView extends View {
          * @see android.view.GestureDetector.SimpleOnGestureListener#onFling(android.view.MotionEvent, android.view.MotionEvent, float, float)
          */
         public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-        	//计算上一次的 y 轴位置, 当前的条目高度 加上 剩余的 不够一行高度的那部分
-            lastScrollY = currentItem * getItemHeight() + scrollingOffset;
-            //如果可以循环最大值是无限大, 不能循环就是条目数的高度值
-            int maxY = isCyclic ? 0x7FFFFFFF : adapter.getItemsCount() * getItemHeight();
-            int minY = isCyclic ? -maxY : 0;
-            /*
-             * Scroll 开始根据一个急冲手势滚动, 滚动的距离与初速度有关
-             * 参数介绍 : 
-             * -- int startX : 开始时的 X轴位置
-             * -- int startY : 开始时的 y轴位置
-             * -- int velocityX : 急冲手势的 x 轴的初速度, 单位 px/s
-             * -- int velocityY : 急冲手势的 y 轴的初速度, 单位 px/s
-             * -- int minX : x 轴滚动的最小值
-             * -- int maxX : x 轴滚动的最大值
-             * -- int minY : y 轴滚动的最小值
-             * -- int maxY : y 轴滚动的最大值
-             */
-            scroller.fling(0, lastScrollY, 0, (int) -velocityY / 2, 0, 0, minY, maxY);
-            setNextMessage(MESSAGE_SCROLL);
+        	/*
+        	 * 以手指速度的一半开始急冲 (与原来 Scroller 的急冲距离相同), 停止之后调整到最近的条目
+        	 * 手指向下滑动时 velocityY 为正, 条目向下移动
+        	 */
+            engine.fling(velocityY / 2);
             return true;
         }
     };
 
-    // Handler 中的  Message 信息
-    /** 滚动信息 */
-    private final int MESSAGE_SCROLL = 0;
-    /** 调整信息 */
-    private final int MESSAGE_JUSTIFY = 1;
-
     /**
-     * 清空之前的 Handler 队列, 发送下一个消息到 Handler 中
-     * 
-     * @param message
-     *            要发送的消息
-     */
-    private void setNextMessage(int message) {
-    	//清空 Handler 队列中的  what 消息
-        clearMessages();
-        //发送消息到 Handler 中
-        animationHandler.sendEmptyMessage(message);
-    }
-
-    /**
-     * 清空队列中的信息
-     */
-    private void clearMessages() {
-    	//删除 Handler 执行队列中的滚动操作
-        animationHandler.removeMessages(MESSAGE_SCROLL);
-        animationHandler.removeMessages(MESSAGE_JUSTIFY);
-    }
-
-    /**
-     * 动画控制器
-     *  animation handler
-     *  
-     *  可能会造成内存泄露 : 添加注解 HandlerLeak
-     *  Handler 类应该应该为static类型，否则有可能造成泄露。
-     *  在程序消息队列中排队的消息保持了对目标Handler类的应用。
-     *  如果Handler是个内部类，那 么它也会保持它所在的外部类的引用。
-     *  为了避免泄露这个外部类，应该将Handler声明为static嵌套类，并且使用对外部类的弱应用。
-     */
-    @SuppressLint("HandlerLeak")
-	private Handler animationHandler = new Handler() {
-        public void handleMessage(Message msg) {
-        	//回调该方法获取当前位置, 如果返回true, 说明动画还没有执行完毕
-            scroller.computeScrollOffset();
-            //获取当前 y 位置
-            int currY = scroller.getCurrY();
-            //获取已经滚动了的位置, 使用上一次位置 减去 当前位置
-            int delta = lastScrollY - currY;
-            lastScrollY = currY;
-            if (delta != 0) {
-            	//改变值不为 0 , 继续滚动
-                doScroll(delta);
+     * 动画帧回调, 每一帧推进一次滚动引擎, 这一帧的滚动距离合并成一次移动, 只重绘一次
+     */
+    private final WheelFrameClock.FrameCallback animationCallback = new WheelFrameClock.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!engine.isAnimating()) {
+                return;
             }
-
-            /*
-             * 如果滚动到了指定的位置, 滚动还没有停止
-             * 这时需要强制停止
-             */
-            if (Math.abs(currY - scroller.getFinalY()) < MIN_DELTA_FOR_SCROLLING) {
-                currY = scroller.getFinalY();
-                scroller.forceFinished(true);
+            if (metrics != null) {
+                metrics.recordAnimationFrame(frameTimeNanos);
             }
-            
-            /*
-             * 如果滚动没有停止
-             * 再向 Handler 发送一个停止
-             */
-            if (!scroller.isFinished()) {
-                animationHandler.sendEmptyMessage(msg.what);
-            } else if (msg.what == MESSAGE_SCROLL) {
-                justify();
-            } else {
-                finishScrolling();
+            updateEngineLayout();
+            long startNanos = metrics != null ? System.nanoTime() : 0;
+            engine.doFrame(frameTimeNanos);
+            if (metrics != null) {
+                metrics.recordScroll(System.nanoTime() - startNanos);
             }
         }
     };
 
     /**
-     * 调整 WheelView
+     * 滚动引擎回调
      */
-    private void justify() {
-        if (adapter == null) {
-            return;
+    private final WheelScrollEngine.Callback engineCallback = new WheelScrollEngine.Callback() {
+        @Override
+        public void onScrollingStarted() {
+            if (metrics != null) {
+                //刷新率可能在两次滚动之间改变, 例如 移动到另一个屏幕, 或者系统切换刷新率
+                metrics.setFrameInterval(getFrameIntervalNanos());
+                metrics.onScrollingStarted();
+            }
+            //通知监听器开始滚动 回调所有的 滚动监听集合中 的 开始滚动方法
+            notifyScrollingListenersAboutStart();
         }
-        //上一次的 y 轴的位置为 0
-        lastScrollY = 0;
-        int offset = scrollingOffset;
-        int itemHeight = getItemHeight();
-        /*
-         * 当滚动补偿 大于 0, 说明还有没有滚动的部分,  needToIncrease 是 当前条目是否小于条目数
-         * 如果 滚动补偿不大于 0,  needToIncrease 是当前条目是否大于 0
-         */
-        boolean needToIncrease = offset > 0 ? currentItem < adapter.getItemsCount() : currentItem > 0;
-        if ((isCyclic || needToIncrease) && Math.abs((float) offset) > (float) itemHeight / 2) {
-            if (offset < 0)
-                offset += itemHeight + MIN_DELTA_FOR_SCROLLING;
-            else
-                offset -= itemHeight + MIN_DELTA_FOR_SCROLLING;
-        }
-        if (Math.abs(offset) > MIN_DELTA_FOR_SCROLLING) {
-            scroller.startScroll(0, 0, 0, offset, SCROLLING_DURATION);
-            setNextMessage(MESSAGE_JUSTIFY);
-        } else {
-            finishScrolling();
+
+        @Override
+        public void onItemChanged(int oldItem, int newItem) {
+            //滚动过程中不绘制选中条目布局, 停止滚动之后重新创建
+            items.valueLayout = null;
+            //沿滚动方向预加载, 可循环时跨越首尾的变化方向相反
+            prefetchItems(isCyclic ? WheelMath.cyclicDistance(oldItem, newItem, items.itemsCount) : newItem - oldItem);
+            //按照回调模式 回调元素改变监听器
+            dispatchItemChanged(oldItem, newItem);
+            invalidate();
         }
-    }
 
-    /**
-     * WheelView 开始滚动
-     */
-    private void startScrolling() {
-    	//如果没有滚动, 将滚动状态 isScrollingPerformed 设为 true
-        if (!isScrollingPerformed) {
-            isScrollingPerformed = true;
-            //通知监听器开始滚动 回调所有的 滚动监听集合中 的 开始滚动方法
-            notifyScrollingListenersAboutStart();
+        @Override
+        public void onOffsetChanged() {
+            invalidate();
         }
-    }
+
+        @Override
+        public void onScrollingFinished() {
+            //先回调合并的条目改变, 监听器在滚动结束回调中看到的是最终的条目
+            flushPendingChanges();
+            notifyScrollingListenersAboutEnd();
+            if (metrics != null) {
+                metrics.onScrollingFinished();
+                if (metricsListener != null) {
+                    metricsListener.onScrollingMetrics(WheelView.this, metrics.snapshot());
+                }
+            }
+            items.valueLayout = null;
+        }
+
+        @Override
+        public void requestFrame() {
+            //一帧之内多次请求只执行一次
+            frameClock.removeFrameCallback(animationCallback);
+            frameClock.postFrameCallback(animationCallback);
+        }
+    };
 
     /**
      * 结束滚动
      * 	设置滚动状态为 false, 回调滚动监听器的停止滚动方法
      */
     void finishScrolling() {
-        if (isScrollingPerformed) {
-            notifyScrollingListenersAboutEnd();
-            isScrollingPerformed = false;
-        }
-        //设置布局无效
-        invalidateLayouts();
-        //重绘布局
-        invalidate();
+        engine.finishScrolling();
     }
 
     /**
@@ -1264,27 +1638,9 @@ public class WheelView extends View {
      *            每次滚动的间隔
      */
     public void scroll(int itemsToScroll, int time) {
-    	//如果有滚动强制停止
-        scroller.forceFinished(true);
-
-        lastScrollY = scrollingOffset;
-        int offset = itemsToScroll * getItemHeight();
-
-        /*
-         * 给定 一个开始点, 滚动距离, 滚动间隔, 开始滚动
-         * 
-         * 参数解析 : 
-         * 1. 开始的 x 轴位置
-         * 2. 开始的 y 轴位置
-         * 3. 要滚动 x 轴距离
-         * 4. 要滚动 y 轴距离
-         * 5. 滚动花费的时间
-         */
-        scroller.startScroll(0, lastScrollY, 0, offset - lastScrollY, time);
-        setNextMessage(MESSAGE_SCROLL);
-
-        //设置开始滚动状态, 并回调滚动监听器方法
-        startScrolling();
+        updateEngineLayout();
+        //从当前位置开始滚动, 设置开始滚动状态, 并回调滚动监听器方法
+        engine.scrollBy(itemsToScroll, time);
     }
 
 }
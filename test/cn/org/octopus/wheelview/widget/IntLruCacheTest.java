@@ -0,0 +1,155 @@
+package cn.org.octopus.wheelview.widget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * IntLruCache 测试, 与按访问顺序排列的 LinkedHashMap 对比
+ */
+public class IntLruCacheTest {
+
+    /** 记录离开缓存的条目个数 */
+    private static class CountingCache extends IntLruCache<String> {
+        int removed;
+
+        CountingCache(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        protected void entryRemoved(int key, String value) {
+            removed++;
+        }
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        CountingCache cache = new CountingCache(2);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.get(1);
+        cache.put(3, "c");
+
+        assertNull(cache.get(2));
+        assertEquals("a", cache.get(1));
+        assertEquals("c", cache.get(3));
+        assertEquals(1, cache.removed);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void negativeAndHugeKeys() {
+        IntLruCache<String> cache = new IntLruCache<String>(4);
+        cache.put(Integer.MIN_VALUE, "min");
+        cache.put(-1, "minus one");
+        cache.put(Integer.MAX_VALUE, "max");
+
+        assertEquals("min", cache.get(Integer.MIN_VALUE));
+        assertEquals("minus one", cache.get(-1));
+        assertEquals("max", cache.get(Integer.MAX_VALUE));
+        assertNull(cache.get(0));
+    }
+
+    @Test
+    public void matchesLinkedHashMap() {
+        Random random = new Random(1);
+        for (int round = 0; round < 20; round++) {
+            int capacity = 1 + random.nextInt(40);
+            CountingCache cache = new CountingCache(capacity);
+            LinkedHashMap<Integer, String> model = new LinkedHashMap<Integer, String>(16, 0.75f, true);
+            int modelRemoved = 0;
+
+            for (int op = 0; op < 5000; op++) {
+                int key = random.nextInt(capacity * 3);
+                switch (random.nextInt(8)) {
+                case 0:
+                case 1:
+                case 2: {
+                    assertEquals(model.get(key), cache.get(key));
+                    break;
+                }
+                case 3:
+                case 4: {
+                    String value = "v" + random.nextInt(4);
+                    String old = model.remove(key);
+                    if (old != null && !old.equals(value)) {
+                        modelRemoved++;
+                    } else if (old == null && model.size() == capacity) {
+                        Integer eldest = model.keySet().iterator().next();
+                        model.remove(eldest);
+                        modelRemoved++;
+                    }
+                    //相同的字符串常量是同一个对象, 不回调
+                    model.put(key, value.intern());
+                    cache.put(key, value.intern());
+                    break;
+                }
+                case 5: {
+                    if (model.remove(key) != null) {
+                        modelRemoved++;
+                    }
+                    cache.remove(key);
+                    break;
+                }
+                case 6: {
+                    //移除条目: 先移除被删除的范围, 再平移后面的键
+                    int count = 1 + random.nextInt(5);
+                    modelRemoved += removeRange(model, key, key + count);
+                    cache.removeRange(key, key + count);
+                    shiftKeys(model, key + count, -count);
+                    cache.shiftKeys(key + count, -count);
+                    break;
+                }
+                default: {
+                    //插入条目: 不小于插入位置的键向后平移
+                    int count = 1 + random.nextInt(5);
+                    shiftKeys(model, key, count);
+                    cache.shiftKeys(key, count);
+                    break;
+                }
+                }
+                assertEquals(model.size(), cache.size());
+            }
+            assertEquals(modelRemoved, cache.removed);
+
+            //淘汰顺序与 LinkedHashMap 的迭代顺序相同
+            for (Map.Entry<Integer, String> entry : new ArrayList<Map.Entry<Integer, String>>(model.entrySet())) {
+                assertTrue(cache.removeEldest());
+                assertNull(cache.get(entry.getKey()));
+            }
+            assertFalse(cache.removeEldest());
+        }
+    }
+
+    private static int removeRange(LinkedHashMap<Integer, String> model, int from, int to) {
+        List<Integer> keys = new ArrayList<Integer>();
+        for (Integer key : model.keySet()) {
+            if (key >= from && key < to) {
+                keys.add(key);
+            }
+        }
+        for (Integer key : keys) {
+            model.remove(key);
+        }
+        return keys.size();
+    }
+
+    private static void shiftKeys(LinkedHashMap<Integer, String> model, int from, int delta) {
+        List<Map.Entry<Integer, String>> entries = new ArrayList<Map.Entry<Integer, String>>(model.entrySet());
+        model.clear();
+        for (Map.Entry<Integer, String> entry : entries) {
+            int key = entry.getKey();
+            model.put(key >= from ? key + delta : key, entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package cn.org.octopus.wheelview.widget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * LongRangeWheelAdapter 测试
+ */
+public class LongRangeWheelAdapterTest {
+
+    @Test
+    public void valueIndexOutsideRange() {
+        //10, 15, 20, 25
+        LongRangeWheelAdapter adapter = new LongRangeWheelAdapter(10, 5, 4);
+
+        assertEquals(-1, adapter.getValueIndex(8));
+        assertEquals(-1, adapter.getValueIndex(9));
+        assertEquals(0, adapter.getValueIndex(10));
+        assertEquals(0, adapter.getValueIndex(14));
+        assertEquals(3, adapter.getValueIndex(25));
+        assertEquals(3, adapter.getValueIndex(29));
+        assertEquals(-1, adapter.getValueIndex(30));
+        assertEquals(-1, adapter.getValueIndex(Long.MIN_VALUE + 10));
+        assertEquals(-1, new LongRangeWheelAdapter(-10, 5, 4).getValueIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void valueIndexNegativeStep() {
+        //10, 5, 0, -5
+        LongRangeWheelAdapter adapter = new LongRangeWheelAdapter(10, -5, 4);
+
+        assertEquals(-1, adapter.getValueIndex(12));
+        assertEquals(-1, adapter.getValueIndex(11));
+        assertEquals(0, adapter.getValueIndex(10));
+        assertEquals(0, adapter.getValueIndex(6));
+        assertEquals(2, adapter.getValueIndex(-4));
+        assertEquals(3, adapter.getValueIndex(-5));
+        assertEquals(3, adapter.getValueIndex(-9));
+        assertEquals(-1, adapter.getValueIndex(-10));
+    }
+
+    @Test
+    public void valueIndexMatchesBruteForce() {
+        long[] starts = { -17, 0, 3, 1000 };
+        long[] steps = { -7, -1, 1, 3 };
+        for (long start : starts) {
+            for (long step : steps) {
+                LongRangeWheelAdapter adapter = new LongRangeWheelAdapter(start, step, 6);
+                for (long value = start - 60; value <= start + 60; value++) {
+                    assertEquals(start + "/" + step + " " + value, bruteIndex(adapter, value),
+                            adapter.getValueIndex(value));
+                }
+            }
+        }
+        assertEquals(-1, new LongRangeWheelAdapter(0, 1, 0).getValueIndex(0));
+    }
+
+    @Test
+    public void hugeCountUsesLongValues() {
+        long start = 1500000000000L;
+        LongRangeWheelAdapter adapter = new LongRangeWheelAdapter(start, 1000, Integer.MAX_VALUE);
+
+        int last = Integer.MAX_VALUE - 1;
+        assertEquals(start + last * 1000L, adapter.getItemValue(last));
+        assertEquals(Long.toString(start + last * 1000L), adapter.getItem(last));
+        assertEquals(last, adapter.getValueIndex(start + last * 1000L + 999));
+        assertEquals(-1, adapter.getValueIndex(start + Integer.MAX_VALUE * 1000L));
+        assertEquals(-1, adapter.getValueIndex(start - 1));
+        assertNull(adapter.getItem(Integer.MAX_VALUE));
+        assertNull(adapter.getItem(-1));
+    }
+
+    /** 不大于 value 的最后一个条目 (步长为负时是不小于) */
+    private static int bruteIndex(LongRangeWheelAdapter adapter, long value) {
+        int found = -1;
+        for (int i = 0; i < adapter.getItemsCount(); i++) {
+            long item = adapter.getItemValue(i);
+            long next = item + (adapter.getItemValue(1) - adapter.getItemValue(0));
+            if (item <= next ? value >= item && value < next : value <= item && value > next) {
+                found = i;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,118 @@
+package cn.org.octopus.wheelview.widget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * MappedWheelAdapter 测试: 由 MappedWheelAdapterWriter 写出, 再从 ByteBuffer 读取
+ */
+public class MappedWheelAdapterTest {
+
+    @Test
+    public void emptyData() throws IOException {
+        MappedWheelAdapter adapter = new MappedWheelAdapter(ByteBuffer.wrap(write()));
+
+        assertEquals(0, adapter.getItemsCount());
+        assertEquals(0, adapter.getMaximumLength());
+        assertNull(adapter.getItem(0));
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        String[] items = { "", "北京", "  石家庄  ", "a", "emoji 😀", "ü" };
+        //缓存只有两个条目, 大部分读取都要重新解码
+        MappedWheelAdapter adapter = new MappedWheelAdapter(ByteBuffer.wrap(write(items)), 2);
+
+        assertEquals(items.length, adapter.getItemsCount());
+        assertEquals(8, adapter.getMaximumLength());
+        for (int round = 0; round < 3; round++) {
+            for (int i = items.length - 1; i >= 0; i--) {
+                assertEquals(items[i], adapter.getItem(i));
+            }
+        }
+        assertNull(adapter.getItem(-1));
+        assertNull(adapter.getItem(items.length));
+    }
+
+    @Test
+    public void readsFromBufferPosition() throws IOException {
+        byte[] data = write("one", "two");
+        ByteBuffer buffer = ByteBuffer.allocate(data.length + 5);
+        buffer.position(5);
+        buffer.put(data);
+        buffer.position(5);
+
+        MappedWheelAdapter adapter = new MappedWheelAdapter(buffer);
+        assertEquals("two", adapter.getItem(1));
+        assertEquals("one", adapter.getItem(0));
+    }
+
+    @Test
+    public void manyItems() throws IOException {
+        MappedWheelAdapterWriter writer = new MappedWheelAdapterWriter();
+        for (int i = 0; i < 5000; i++) {
+            writer.add("条目" + i);
+        }
+        MappedWheelAdapter adapter = new MappedWheelAdapter(ByteBuffer.wrap(toBytes(writer)));
+
+        assertEquals(5000, adapter.getItemsCount());
+        for (int i = 0; i < 5000; i += 7) {
+            assertEquals("条目" + i, adapter.getItem(i));
+        }
+    }
+
+    @Test
+    public void truncatedData() throws IOException {
+        byte[] data = write("石家庄", "唐山");
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = new byte[length];
+            System.arraycopy(data, 0, truncated, 0, length);
+            assertRejected(truncated);
+        }
+    }
+
+    @Test
+    public void corruptCount() throws IOException {
+        byte[] data = write("a", "b");
+        for (int count : new int[] { -1, Integer.MAX_VALUE, Integer.MAX_VALUE / 4, 1 << 30 }) {
+            ByteBuffer.wrap(data).putInt(4, count);
+            assertRejected(data);
+        }
+    }
+
+    @Test
+    public void wrongMagic() throws IOException {
+        byte[] data = write("a");
+        data[0] = 0;
+        assertRejected(data);
+    }
+
+    private static void assertRejected(byte[] data) {
+        try {
+            new MappedWheelAdapter(ByteBuffer.wrap(data));
+            fail("accepted " + data.length + " bytes");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static byte[] write(String... items) throws IOException {
+        MappedWheelAdapterWriter writer = new MappedWheelAdapterWriter();
+        for (String item : items) {
+            writer.add(item);
+        }
+        return toBytes(writer);
+    }
+
+    private static byte[] toBytes(MappedWheelAdapterWriter writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        return out.toByteArray();
+    }
+}
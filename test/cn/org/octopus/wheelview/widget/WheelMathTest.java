@@ -0,0 +1,79 @@
+package cn.org.octopus.wheelview.widget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * WheelMath 测试, 包括 索引很大时计算耗时有界
+ */
+public class WheelMathTest {
+
+    @Test
+    public void normalizeHugeIndices() {
+        int[] counts = { 1, 7, 60, 1000, Integer.MAX_VALUE };
+        int[] indices = { 0, 5, -1, -5000000, 5000000, Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MAX_VALUE };
+        for (int count : counts) {
+            for (int index : indices) {
+                long expected = ((long) index % count + count) % count;
+                assertEquals("normalize(" + index + ", " + count + ")", expected, WheelMath.normalize(index, count));
+            }
+        }
+    }
+
+    @Test(timeout = 1000)
+    public void normalizeDoesNotDependOnDistance() {
+        //逐个加 count 的循环需要数十亿次迭代, 常数时间的计算很快完成
+        long sum = 0;
+        for (int i = 0; i < 1000000; i++) {
+            sum += WheelMath.normalize(Integer.MIN_VALUE + i, 3);
+        }
+        assertTrue(sum > 0);
+    }
+
+    @Test
+    public void cyclicDistanceTakesShorterWay() {
+        assertEquals(2, WheelMath.cyclicDistance(3, 5, 10));
+        assertEquals(-2, WheelMath.cyclicDistance(5, 3, 10));
+        assertEquals(1, WheelMath.cyclicDistance(9, 0, 10));
+        assertEquals(-1, WheelMath.cyclicDistance(0, 9, 10));
+        assertEquals(0, WheelMath.cyclicDistance(4, 4, 10));
+    }
+
+    @Test
+    public void animationStartBoundsAnimatedDistance() {
+        Random random = new Random(11);
+        int maxItems = WheelMath.MAX_ANIMATED_ITEMS;
+        for (int i = 0; i < 100000; i++) {
+            int count = 1 + random.nextInt(random.nextBoolean() ? 50 : Integer.MAX_VALUE);
+            int current = random.nextInt(count);
+            int target = random.nextInt(count);
+            boolean cyclic = random.nextBoolean();
+
+            int start = WheelMath.animationStart(current, target, count, cyclic, maxItems);
+            assertTrue(start >= 0 && start < count);
+            int distance = cyclic ? WheelMath.cyclicDistance(start, target, count) : target - start;
+            assertTrue("distance " + distance, Math.abs(distance) <= maxItems);
+            if (start != current) {
+                //跳过之后正好剩下 maxItems 个条目的动画
+                assertEquals(maxItems, Math.abs(distance));
+            }
+        }
+    }
+
+    @Test
+    public void animationStartKeepsNearTargets() {
+        assertEquals(3, WheelMath.animationStart(3, 13, 100, false, 10));
+        assertEquals(5, WheelMath.animationStart(3, 15, 100, false, 10));
+        assertEquals(25, WheelMath.animationStart(99, 15, 100, false, 10));
+        //可循环时沿较近的方向, 跨越首尾
+        assertEquals(92, WheelMath.animationStart(90, 2, 100, true, 10));
+        assertEquals(5, WheelMath.animationStart(10, 95, 100, true, 10));
+        assertEquals(12, WheelMath.animationStart(50, 2, 100, true, 10));
+        assertEquals(0, WheelMath.animationStart(0, 95, 100, true, 10));
+        assertEquals(4999989, WheelMath.animationStart(0, 4999999, 10000000, false, 10));
+    }
+}
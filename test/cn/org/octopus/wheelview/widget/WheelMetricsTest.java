@@ -0,0 +1,52 @@
+package cn.org.octopus.wheelview.widget;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * WheelMetrics 掉帧统计测试
+ */
+public class WheelMetricsTest {
+
+    private static final long HZ_60 = 16666667L;
+    private static final long HZ_120 = 8333333L;
+
+    @Test
+    public void defaultsToSixtyHertz() {
+        WheelMetrics metrics = new WheelMetrics();
+        assertEquals(HZ_60, metrics.getFrameIntervalNanos());
+
+        metrics.setFrameInterval(0);
+        assertEquals(HZ_60, metrics.getFrameIntervalNanos());
+    }
+
+    @Test
+    public void countsDroppedFramesAtDisplayRate() {
+        //每两个 120Hz 的帧只画了一个, 按 60Hz 计算没有掉帧
+        long[] frames = { 0, 2 * HZ_120, 4 * HZ_120, 6 * HZ_120, 8 * HZ_120 };
+
+        assertEquals(0, droppedFrames(HZ_60, frames));
+        assertEquals(4, droppedFrames(HZ_120, frames));
+        //1000 / 90 毫秒的帧间隔
+        assertEquals(0, droppedFrames(11111111L, new long[] { 0, 11111111L, 22222222L }));
+    }
+
+    @Test
+    public void snapshotKeepsFrameInterval() {
+        WheelMetrics metrics = new WheelMetrics();
+        metrics.setFrameInterval(HZ_120);
+        assertEquals(HZ_120, metrics.snapshot().getFrameIntervalNanos());
+    }
+
+    private static long droppedFrames(long frameInterval, long[] frames) {
+        WheelMetrics metrics = new WheelMetrics();
+        metrics.setFrameInterval(frameInterval);
+        metrics.onScrollingStarted();
+        for (long frame : frames) {
+            metrics.recordAnimationFrame(frame + 1000000000L);
+        }
+        metrics.onScrollingFinished();
+        return metrics.getDroppedFrames();
+    }
+}
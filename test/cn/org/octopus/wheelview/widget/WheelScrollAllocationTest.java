@@ -0,0 +1,131 @@
+package cn.org.octopus.wheelview.widget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * 滚动路径的内存分配测试
+ * -- 模拟 10 秒连续急冲, 每帧推进滚动引擎, 并像 drawItems 一样按行取出可见条目
+ * -- 预热一遍之后再执行一遍, 统计当前线程分配的字节数, 必须为 0
+ * -- 使用 HotSpot 的 com.sun.management.ThreadMXBean 统计分配, 其他虚拟机上跳过
+ */
+public class WheelScrollAllocationTest {
+
+    private static final int ITEM_HEIGHT = 50;
+    private static final int VISIBLE_ITEMS = 5;
+    private static final long FRAME_NANOS = 16666667L;
+    /** 10 秒的帧数 */
+    private static final int FRAMES = 600;
+
+    /** 模拟的 WheelView: 滚动引擎回调 和 按行获取条目 */
+    private static class Host implements WheelScrollEngine.Callback {
+        final WheelScrollEngine engine = new WheelScrollEngine(this);
+        final NumericWheelAdapter adapter = new NumericWheelAdapter(0, 59, "%02d");
+        /** 代替布局缓存, 保存显示过的条目 */
+        final IntLruCache<String> rows = new IntLruCache<String>(VISIBLE_ITEMS * 3);
+        boolean frameRequested;
+        int scrollings;
+        long drawnChars;
+
+        Host() {
+            engine.setFriction(WheelScrollEngine.DEFAULT_FRICTION, 2.0f);
+            engine.setLayout(ITEM_HEIGHT, adapter.getItemsCount(), true, ITEM_HEIGHT * VISIBLE_ITEMS);
+        }
+
+        @Override
+        public void onScrollingStarted() {
+            scrollings++;
+        }
+
+        @Override
+        public void onItemChanged(int oldItem, int newItem) {
+        }
+
+        @Override
+        public void onOffsetChanged() {
+        }
+
+        @Override
+        public void onScrollingFinished() {
+        }
+
+        @Override
+        public void requestFrame() {
+            frameRequested = true;
+        }
+
+        /**
+         * 与 drawItems 相同, 绘制当前条目上下各 addItems 行
+         */
+        void draw() {
+            int addItems = VISIBLE_ITEMS / 2 + 1;
+            int current = engine.getCurrentItem();
+            int count = adapter.getItemsCount();
+            for (int i = current - addItems; i <= current + addItems; i++) {
+                int index = WheelMath.normalize(i, count);
+                String text = rows.get(index);
+                if (text == null) {
+                    text = adapter.getItem(index);
+                    rows.put(index, text);
+                }
+                drawnChars += text.length();
+            }
+        }
+    }
+
+    /**
+     * 连续急冲 10 秒, 每次停止之后以下一个速度反向急冲
+     */
+    private static void fling(Host host, float[] velocities) {
+        long frameTime = 0;
+        int next = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            if (!host.engine.isAnimating()) {
+                host.engine.fling(velocities[next++ % velocities.length]);
+            }
+            if (host.frameRequested) {
+                host.frameRequested = false;
+                host.engine.doFrame(frameTime);
+            }
+            host.draw();
+            frameTime += FRAME_NANOS;
+        }
+    }
+
+    @Test
+    public void tenSecondFlingDoesNotAllocate() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean.isThreadAllocatedMemorySupported());
+        bean.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        float[] velocities = new float[16];
+        Random random = new Random(2);
+        for (int i = 0; i < velocities.length; i++) {
+            velocities[i] = (i % 2 == 0 ? 1 : -1) * (500 + random.nextInt(4000));
+        }
+
+        //预热: 格式化所有条目, 加载用到的类
+        Host host = new Host();
+        fling(host, velocities);
+
+        //统计本身的分配
+        long calibration = bean.getThreadAllocatedBytes(threadId);
+        calibration = bean.getThreadAllocatedBytes(threadId) - calibration;
+
+        long before = bean.getThreadAllocatedBytes(threadId);
+        fling(host, velocities);
+        long allocated = bean.getThreadAllocatedBytes(threadId) - before - calibration;
+
+        assertTrue(host.scrollings > 2);
+        assertTrue(host.drawnChars > 0);
+        assertEquals("bytes allocated during a 10 s fling", 0, allocated);
+    }
+}
@@ -0,0 +1,230 @@
+package cn.org.octopus.wheelview.widget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * WheelScrollEngine 测试, 在普通 JVM 中手动推进帧
+ */
+public class WheelScrollEngineTest {
+
+    private static final int ITEM_HEIGHT = 50;
+    private static final int ITEMS_COUNT = 10;
+    /** 帧间隔, 16 ms */
+    private static final long FRAME_NANOS = 16000000L;
+
+    /** 记录回调的宿主 */
+    private static class Host implements WheelScrollEngine.Callback {
+        boolean frameRequested;
+        int itemChanges;
+        int finished;
+
+        @Override
+        public void onScrollingStarted() {
+        }
+
+        @Override
+        public void onItemChanged(int oldItem, int newItem) {
+            itemChanges++;
+        }
+
+        @Override
+        public void onOffsetChanged() {
+        }
+
+        @Override
+        public void onScrollingFinished() {
+            finished++;
+        }
+
+        @Override
+        public void requestFrame() {
+            frameRequested = true;
+        }
+    }
+
+    /** 手动设置时间的时钟 */
+    private static class ManualClock implements WheelScrollEngine.Clock {
+        long now;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+    }
+
+    private Host host;
+
+    @Before
+    public void setUp() {
+        host = new Host();
+    }
+
+    private WheelScrollEngine createEngine(WheelScrollEngine.Clock clock, int currentItem) {
+        WheelScrollEngine engine = new WheelScrollEngine(host, clock);
+        engine.setFriction(WheelScrollEngine.DEFAULT_FRICTION, 2.0f);
+        engine.setLayout(ITEM_HEIGHT, ITEMS_COUNT, false, 0);
+        engine.setCurrentItem(currentItem);
+        return engine;
+    }
+
+    /**
+     * 推进帧直到动画结束
+     *
+     * @return 推进的帧数
+     */
+    private int runFrames(WheelScrollEngine engine, long firstFrameNanos) {
+        int frames = 0;
+        long frameTime = firstFrameNanos;
+        while (host.frameRequested) {
+            host.frameRequested = false;
+            engine.doFrame(frameTime);
+            frameTime += FRAME_NANOS;
+            frames++;
+            assertTrue("animation did not finish", frames < 1000);
+        }
+        return frames;
+    }
+
+    @Test
+    public void flingAwayFromFirstItemWhenFirstFrameIsBeforeStart() {
+        for (long firstFrameDelta : new long[] { 0, -4000000L }) {
+            setUp();
+            ManualClock clock = new ManualClock();
+            clock.now = 1000000000L;
+            WheelScrollEngine engine = createEngine(clock, 0);
+
+            //偏移为负时向后面的条目滚动, 第一个条目只在相反方向上有边界
+            engine.fling(-3000);
+            int frames = runFrames(engine, clock.now + firstFrameDelta);
+
+            assertTrue(frames > 1);
+            assertTrue(engine.getCurrentItem() > 0);
+            assertEquals(0, engine.getOffset());
+            assertFalse(engine.isScrolling());
+        }
+    }
+
+    @Test
+    public void flingAwayFromLastItemWhenFirstFrameIsBeforeStart() {
+        for (long firstFrameDelta : new long[] { 0, -4000000L }) {
+            setUp();
+            ManualClock clock = new ManualClock();
+            clock.now = 1000000000L;
+            WheelScrollEngine engine = createEngine(clock, ITEMS_COUNT - 1);
+
+            engine.fling(3000);
+            int frames = runFrames(engine, clock.now + firstFrameDelta);
+
+            assertTrue(frames > 1);
+            assertTrue(engine.getCurrentItem() < ITEMS_COUNT - 1);
+            assertEquals(0, engine.getOffset());
+        }
+    }
+
+    @Test
+    public void flingIntoFirstItemStopsAtOnce() {
+        WheelScrollEngine engine = createEngine(null, 0);
+
+        engine.fling(3000);
+        runFrames(engine, 0);
+
+        assertEquals(0, engine.getCurrentItem());
+        assertEquals(0, host.itemChanges);
+        assertEquals(1, host.finished);
+    }
+
+    @Test
+    public void animationStartsAtFirstFrameWithoutClock() {
+        //帧时间与 System.nanoTime() 使用不同的时间基准
+        for (long base : new long[] { 0, Long.MAX_VALUE / 2, -Long.MAX_VALUE / 2 }) {
+            setUp();
+            WheelScrollEngine engine = createEngine(null, 2);
+
+            engine.scrollBy(3, WheelScrollEngine.DEFAULT_SCROLL_DURATION);
+            int frames = runFrames(engine, base);
+
+            //动画按帧时间推进, 不会在第一帧直接跳到终点
+            assertTrue(frames > WheelScrollEngine.DEFAULT_SCROLL_DURATION * 1000000L / FRAME_NANOS / 2);
+            assertEquals(5, engine.getCurrentItem());
+            assertFalse(engine.isScrolling());
+        }
+    }
+
+    @Test
+    public void flingDistanceMatchesScroller() {
+        WheelScrollEngine engine = createEngine(null, 0);
+
+        //android.widget.Scroller 在密度为 2 时以 1500 像素 / 秒 急冲约 236 像素
+        assertEquals(236, engine.getFlingDistance(1500), 1);
+        assertEquals(-236, engine.getFlingDistance(-1500), 1);
+        assertEquals(0, engine.getFlingDistance(0), 0);
+
+        engine.setMaxVelocity(1500);
+        assertEquals(engine.getFlingDistance(1500), engine.getFlingDistance(4000), 0);
+    }
+
+    @Test
+    public void flingTravelsScrollerDistance() {
+        WheelScrollEngine engine = new WheelScrollEngine(host);
+        engine.setFriction(WheelScrollEngine.DEFAULT_FRICTION, 2.0f);
+        engine.setLayout(ITEM_HEIGHT, 1000, false, 0);
+        engine.setCurrentItem(0);
+
+        engine.fling(-1500);
+        runFrames(engine, 0);
+
+        //236 像素约 4.7 个条目, 调整到最近的条目
+        assertEquals(5, engine.getCurrentItem());
+    }
+
+    @Test
+    public void snapFlingStopsAlignedWithoutJustify() {
+        WheelScrollEngine engine = new WheelScrollEngine(host);
+        engine.setFriction(WheelScrollEngine.DEFAULT_FRICTION, 2.0f);
+        engine.setLayout(ITEM_HEIGHT, 1000, false, 0);
+        engine.setSnapToItem(true);
+        engine.setCurrentItem(500);
+        engine.drag(-20);
+
+        engine.fling(-1500);
+        runFrames(engine, 0);
+
+        //从偏移 -20 开始再移动约 236 像素, 最近的条目是第 505 个
+        assertEquals(505, engine.getCurrentItem());
+        assertEquals(0, engine.getOffset());
+        assertEquals(1, host.finished);
+    }
+
+    @Test(timeout = 1000)
+    public void cyclicFlingAcrossHugeWheelIsBounded() {
+        WheelScrollEngine engine = new WheelScrollEngine(host);
+        engine.setFriction(WheelScrollEngine.DEFAULT_FRICTION, 2.0f);
+        engine.setLayout(ITEM_HEIGHT, Integer.MAX_VALUE, true, 0);
+        engine.setCurrentItem(0);
+
+        //可循环时急冲的范围是整个 int, 每帧的计算量与经过的条目数无关
+        engine.fling(-Float.MAX_VALUE);
+        int frames = runFrames(engine, 0);
+
+        assertTrue(frames < 1000);
+        assertTrue(engine.getCurrentItem() > 0);
+        assertEquals(0, engine.getOffset());
+    }
+
+    @Test(timeout = 1000)
+    public void hugeDragOnCyclicWheelIsConstantTime() {
+        WheelScrollEngine engine = createEngine(null, 0);
+        engine.setLayout(ITEM_HEIGHT, 7, true, 0);
+
+        //一次拖动经过约 4000 万个条目, 当前条目直接取模得到
+        engine.drag(-Integer.MAX_VALUE + 1);
+        int items = (Integer.MAX_VALUE - 1) / ITEM_HEIGHT;
+        assertEquals(items % 7, engine.getCurrentItem());
+        assertEquals(-((Integer.MAX_VALUE - 1) % ITEM_HEIGHT), engine.getOffset());
+    }
+}
@@ -0,0 +1,120 @@
+package cn.org.octopus.wheelview.widget;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * WheelSearchIndex 与 NumericWheelAdapter 查找测试, 与逐个比较的结果对比
+ */
+public class WheelSearchIndexTest {
+
+    @Test
+    public void findPrefixMatchesBruteForce() {
+        Random random = new Random(2);
+        for (int round = 0; round < 50; round++) {
+            String[] items = new String[random.nextInt(60)];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = randomText(random);
+            }
+            WheelSearchIndex index = WheelSearchIndex.build(new ArrayWheelAdapter<String>(items));
+            assertEquals(items.length, index.size());
+
+            for (int i = 0; i < 100; i++) {
+                String prefix = randomText(random);
+                assertEquals(prefix, bruteFindPrefix(items, prefix), index.findPrefix(prefix));
+                assertEquals(prefix, bruteMatchCount(items, prefix), index.getMatchCount(prefix));
+            }
+        }
+    }
+
+    @Test
+    public void findNearestPrefersLongerCommonPrefix() {
+        String[] items = { "Beijing", "Shanghai", "Shenzhen", "Guangzhou" };
+        WheelSearchIndex index = WheelSearchIndex.build(new ArrayWheelAdapter<String>(items));
+
+        assertEquals(1, index.findNearest("shang"));
+        assertEquals(2, index.findNearest("shex"));
+        assertEquals(0, index.findNearest("a"));
+        assertEquals(0, index.findNearest("  BEI "));
+        assertEquals(2, index.findNearest("zzz"));
+        assertEquals(-1, WheelSearchIndex.build(new ArrayWheelAdapter<String>(new String[0])).findNearest("a"));
+    }
+
+    @Test
+    public void numericFindPrefixMatchesBruteForce() {
+        int[][] ranges = { { 0, 59 }, { 1, 12 }, { -30, 30 }, { -1200, -5 }, { 95, 10050 }, { 1900, 2100 } };
+        String[] prefixes = { "", "-", "0", "-0", "1", "2", "9", "10", "-1", "-12", "20", "205", "00", "a", "-x",
+                "1000", "99999999999" };
+        for (int[] range : ranges) {
+            NumericWheelAdapter adapter = new NumericWheelAdapter(range[0], range[1]);
+            String[] items = new String[adapter.getItemsCount()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = adapter.getItem(i);
+            }
+            for (String prefix : prefixes) {
+                assertEquals(range[0] + ".." + range[1] + " \"" + prefix + "\"",
+                        bruteFindFirst(items, prefix), adapter.findPrefix(prefix));
+            }
+        }
+    }
+
+    @Test
+    public void numericFindPrefixOnHugeRange() {
+        NumericWheelAdapter adapter = new NumericWheelAdapter(-1000000000, 1000000000);
+
+        assertEquals(1000000000 + 7, adapter.findPrefix("7"));
+        assertEquals(1000000000 + 1000000000, adapter.findPrefix("1000000000"));
+        assertEquals(0, adapter.findPrefix("-1"));
+        assertEquals(1000000000 - 999999999, adapter.findPrefix("-9"));
+        assertEquals(-1, adapter.findPrefix("2000000000"));
+    }
+
+    /** 按规范化文字排序后的第一个匹配, 文字相同时取索引小的 */
+    private static int bruteFindPrefix(String[] items, String prefix) {
+        String key = WheelSearchIndex.normalize(prefix);
+        int best = -1;
+        for (int i = 0; i < items.length; i++) {
+            String text = WheelSearchIndex.normalize(items[i]);
+            if (text.startsWith(key)
+                    && (best < 0 || text.compareTo(WheelSearchIndex.normalize(items[best])) < 0)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static int bruteMatchCount(String[] items, String prefix) {
+        String key = WheelSearchIndex.normalize(prefix);
+        int count = 0;
+        for (String item : items) {
+            if (WheelSearchIndex.normalize(item).startsWith(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** 数值条目按数值升序排列, 第一个匹配就是数值最小的 */
+    private static int bruteFindFirst(String[] items, String prefix) {
+        String key = WheelSearchIndex.normalize(prefix);
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].startsWith(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String randomText(Random random) {
+        String alphabet = "abAB1 ";
+        int length = random.nextInt(4);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+}
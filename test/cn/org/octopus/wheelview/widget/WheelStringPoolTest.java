@@ -0,0 +1,82 @@
+package cn.org.octopus.wheelview.widget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * WheelStringPool 和 StringPoolWheelAdapter 测试
+ */
+public class WheelStringPoolTest {
+
+    @Test
+    public void idsRoundTripAndDuplicatesShareOneId() {
+        String[][] levels = new String[][] {
+                new String[] { "  石家庄  ", "唐山", "市辖区", "" },
+                new String[] { "市辖区", "太原", "  石家庄  ", "石家庄" } };
+
+        WheelStringPool.Builder builder = new WheelStringPool.Builder();
+        int[][] ids = builder.addAll(levels);
+        WheelStringPool pool = builder.build(2);
+
+        for (int level = 0; level < levels.length; level++) {
+            for (int i = 0; i < levels[level].length; i++) {
+                assertEquals(levels[level][i], pool.getString(ids[level][i]));
+                assertEquals(levels[level][i].length(), pool.getLength(ids[level][i]));
+            }
+        }
+        //填充的字符串原样保存, 与去掉空格的字符串是不同的条目
+        assertEquals(ids[0][0], ids[1][2]);
+        assertEquals(ids[0][2], ids[1][0]);
+        assertEquals(6, pool.size());
+    }
+
+    @Test
+    public void builderGrowsPastInitialCapacity() {
+        WheelStringPool.Builder builder = new WheelStringPool.Builder();
+        int count = 5000;
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = builder.add("条目" + (i % 3000));
+        }
+        WheelStringPool pool = builder.build();
+
+        assertEquals(3000, pool.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i % 3000, ids[i]);
+            assertEquals("条目" + (i % 3000), pool.getString(ids[i]));
+        }
+    }
+
+    @Test
+    public void cachedStringsAreReused() {
+        WheelStringPool.Builder builder = new WheelStringPool.Builder();
+        int[] ids = builder.addAll(new String[] { "市辖区", "城区", "市辖区" });
+        WheelStringPool pool = builder.build();
+
+        StringPoolWheelAdapter adapter = new StringPoolWheelAdapter(pool, ids);
+        assertSame(adapter.getItem(0), adapter.getItem(2));
+        assertSame(pool.getString(ids[1]), adapter.getItem(1));
+    }
+
+    @Test
+    public void adapterItemsAndSearch() {
+        WheelStringPool.Builder builder = new WheelStringPool.Builder();
+        int[] ids = builder.addAll(new String[] { "Beijing", "Shanghai", "Baoding", "Beijing" });
+        WheelStringPool pool = builder.build();
+
+        StringPoolWheelAdapter adapter = new StringPoolWheelAdapter(pool, ids);
+        assertEquals(4, adapter.getItemsCount());
+        assertEquals(ArrayWheelAdapter.DEFAULT_LENGTH, adapter.getMaximumLength());
+        assertEquals("Shanghai", adapter.getItem(1));
+        assertNull(adapter.getItem(-1));
+        assertNull(adapter.getItem(4));
+
+        assertEquals(2, adapter.findPrefix("ba"));
+        assertEquals(0, adapter.findPrefix("bei"));
+        assertEquals(1, adapter.findPrefix("sh"));
+        assertEquals(-1, adapter.findPrefix("x"));
+    }
+}
@@ -0,0 +1,115 @@
+package cn.org.octopus.wheelview.widget;
+
+import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * 生成 MappedWheelAdapter 数据的构建工具
+ * -- 在构建时运行, 位于单独的 tools 源码目录中, 不打包进应用
+ * -- 命令行用法: java cn.org.octopus.wheelview.widget.MappedWheelAdapterWriter 输入文件 输出文件
+ *    输入文件是 UTF-8 文本, 每行一个条目, 保留行首尾的空白
+ * -- 编译: javac -cp <src 编译结果> -d out tools/cn/org/octopus/wheelview/widget/*.java
+ */
+public final class MappedWheelAdapterWriter {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /** 偏移表, 第 i 个条目的数据是 [offsets[i], offsets[i + 1]) */
+    private int[] offsets = new int[1024];
+    /** 条目个数 */
+    private int count;
+    /** 最大字符个数 */
+    private int maximumLength;
+    /** UTF-8 数据 */
+    private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+    /**
+     * 添加一个条目
+     *
+     * @param item
+     *            条目, 不能为 null
+     */
+    public void add(String item) {
+        byte[] bytes = item.getBytes(UTF_8);
+        if (count + 1 >= offsets.length) {
+            int[] newOffsets = new int[offsets.length * 2];
+            System.arraycopy(offsets, 0, newOffsets, 0, count + 1);
+            offsets = newOffsets;
+        }
+        data.write(bytes, 0, bytes.length);
+        count++;
+        offsets[count] = data.size();
+        maximumLength = Math.max(maximumLength, item.length());
+    }
+
+    /**
+     * 获取已经添加的条目个数
+     *
+     * @return
+     * 		条目个数
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * 写出数据, 格式见 MappedWheelAdapter
+     *
+     * @param out
+     *            输出流, 不会被关闭
+     * @throws IOException
+     *             写出出错
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out));
+        dataOut.writeInt(MappedWheelAdapter.MAGIC);
+        dataOut.writeInt(count);
+        dataOut.writeInt(maximumLength);
+        for (int i = 0; i <= count; i++) {
+            dataOut.writeInt(offsets[i]);
+        }
+        data.writeTo(dataOut);
+        dataOut.flush();
+    }
+
+    /**
+     * 命令行入口
+     *
+     * @param args
+     *            输入文件 输出文件
+     * @throws IOException
+     *             读写文件出错
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: MappedWheelAdapterWriter <input.txt> <output.bin>");
+            System.exit(1);
+        }
+        MappedWheelAdapterWriter writer = new MappedWheelAdapterWriter();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(args[0]), UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+
+        OutputStream out = new FileOutputStream(args[1]);
+        try {
+            writer.writeTo(out);
+        } finally {
+            out.close();
+        }
+        System.out.println(writer.getCount() + " items written to " + args[1]);
+    }
+}